@@ -0,0 +1,43 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.metrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of the instrumentation added to the damage, regeneration and rendering paths by {@link HealthMetrics}.
+ * <p>
+ * Recording is expected to be allocation-free; run with {@code -prof gc} to verify.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HealthMetricsBenchmark {
+
+    private final HealthMetrics metrics = new HealthMetrics();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Benchmark
+    public void count() {
+        metrics.count(HealthMetrics.Counter.ON_DAMAGED);
+    }
+
+    @Benchmark
+    public void recordPhase() {
+        metrics.record(HealthMetrics.Phase.DAMAGE, System.nanoTime());
+    }
+
+    @Benchmark
+    public void recordHistogram() {
+        histogram.record(1234);
+    }
+}
@@ -0,0 +1,108 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Random;
+
+/**
+ * Throughput of the per-block work for damaged blocks: deriving damage and health levels from the health values, and
+ * maintaining, packing and applying the per-chunk damage levels streamed to clients.
+ * <p>
+ * Each invocation processes {@code blocks} damaged blocks, so the reported ops/s are per batch. Run with
+ * {@code -prof gc} to see the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BlockDamageBenchmark {
+
+    private static final int BLOCKS_PER_CHUNK = Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z;
+
+    @Param({"1000", "100000", "1000000"})
+    public int blocks;
+
+    private int[] currentHealth;
+    private int[] maxHealth;
+    private Vector3i[] positions;
+    private ChunkDamageLevels[] chunks;
+    private byte[][] packed;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        currentHealth = new int[blocks];
+        maxHealth = new int[blocks];
+        positions = new Vector3i[blocks];
+        for (int i = 0; i < blocks; i++) {
+            maxHealth[i] = 1 + random.nextInt(100);
+            currentHealth[i] = random.nextInt(maxHealth[i] + 1);
+            positions[i] = new Vector3i(random.nextInt(1024) - 512, random.nextInt(128) - 64, random.nextInt(1024) - 512);
+        }
+
+        int chunkCount = Math.max(1, blocks / 1000);
+        chunks = new ChunkDamageLevels[chunkCount];
+        packed = new byte[chunkCount][];
+        for (int c = 0; c < chunkCount; c++) {
+            chunks[c] = new ChunkDamageLevels();
+            for (int i = 0; i < 1000; i++) {
+                chunks[c].set(random.nextInt(BLOCKS_PER_CHUNK), 1 + random.nextInt(10));
+            }
+            packed[c] = chunks[c].pack();
+        }
+    }
+
+    @Benchmark
+    public void damageLevel(Blackhole blackhole) {
+        for (int i = 0; i < blocks; i++) {
+            blackhole.consume(ChunkDamageLevels.damageLevel(currentHealth[i], maxHealth[i]));
+        }
+    }
+
+    @Benchmark
+    public void healthLevel(Blackhole blackhole) {
+        for (int i = 0; i < blocks; i++) {
+            blackhole.consume(HealthReplicationAuthoritySystem.healthLevel(currentHealth[i], maxHealth[i]));
+        }
+    }
+
+    @Benchmark
+    public void localIndex(Blackhole blackhole) {
+        for (Vector3i position : positions) {
+            blackhole.consume(ChunkDamageLevels.localIndex(position));
+        }
+    }
+
+    /** Building a snapshot of every damaged chunk, as done when chunks come into range of a client. */
+    @Benchmark
+    public void packSnapshots(Blackhole blackhole) {
+        for (ChunkDamageLevels chunk : chunks) {
+            blackhole.consume(chunk.pack());
+        }
+    }
+
+    /** Applying snapshots of every damaged chunk on the client. */
+    @Benchmark
+    public void applySnapshots(Blackhole blackhole) {
+        for (byte[] entries : packed) {
+            ChunkDamageLevels chunk = new ChunkDamageLevels();
+            chunk.apply(entries);
+            blackhole.consume(chunk);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.integrationenvironment.Engines;
+import org.terasology.engine.network.NetworkMode;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.tiles.WorldAtlas;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.components.RegenComponent;
+import org.terasology.module.health.core.BaseRegenAuthoritySystem;
+import org.terasology.module.health.core.BaseRegenComponent;
+import org.terasology.module.health.events.DoDamageEvent;
+
+import java.util.Collections;
+
+/**
+ * Throughput of the hot paths of the health pipeline, running the actual systems against the in-memory entity manager
+ * of a headless host from the integration environment:
+ * <ul>
+ *     <li>damage via {@link DoDamageEvent}, i.e., {@code DamageAuthoritySystem.checkDamage} with its collector and
+ *     notification events</li>
+ *     <li>{@link RestorationAuthoritySystem#restore}</li>
+ *     <li>registering base regeneration with {@link RegenAuthoritySystem#registerIndefinite}</li>
+ *     <li>a full regeneration pass of {@link RegenAuthoritySystem#update}</li>
+ *     <li>{@link BlockParticleOffsets#computeOffsets} for a block appearance</li>
+ * </ul>
+ * The host is started once per trial, and the health of all entities is reset once per iteration, so that damage,
+ * restoration and regeneration keep doing actual work. Each invocation processes {@code entities} entities, so the
+ * reported ops/s are per tick. Run with {@code -prof gc} to see the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HealthPipelineBenchmark {
+
+    private static final int MAX_HEALTH = 1_000_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    private Engines engines;
+    private EntityRef[] entityRefs;
+    private HealthComponent[] healths;
+    private RegenAuthoritySystem regenSystem;
+    private BlockParticleOffsets particleOffsets;
+    private BlockAppearance blockAppearance;
+
+    @Setup(Level.Trial)
+    public void startHost() {
+        engines = new Engines(Collections.singletonList("Health"), null, NetworkMode.NONE);
+        engines.setup();
+        Context context = engines.getHostContext();
+
+        EntityManager entityManager = context.get(EntityManager.class);
+        entityRefs = new EntityRef[entities];
+        healths = new HealthComponent[entities];
+        for (int i = 0; i < entities; i++) {
+            HealthComponent health = new HealthComponent();
+            health.maxHealth = MAX_HEALTH;
+            health.currentHealth = MAX_HEALTH / 2;
+            BaseRegenComponent baseRegen = new BaseRegenComponent();
+            baseRegen.regenRate = 10;
+            baseRegen.waitBeforeRegen = 0;
+
+            EntityRef entity = entityManager.create();
+            entity.addComponent(health);
+            entity.addComponent(baseRegen);
+            entityRefs[i] = entity;
+            // the entity manager keeps the added instance, so it can be reset without another lookup
+            healths[i] = entity.getComponent(HealthComponent.class);
+        }
+
+        regenSystem = context.get(RegenAuthoritySystem.class);
+        particleOffsets = new BlockParticleOffsets(context.get(WorldAtlas.class), 0.1f, new FastRandom(42));
+        blockAppearance = context.get(BlockManager.class).getBlock("health:test").getPrimaryAppearance();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetHealth() {
+        for (HealthComponent health : healths) {
+            health.currentHealth = MAX_HEALTH / 2;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopHost() {
+        engines.tearDown();
+    }
+
+    @Benchmark
+    public void damage() {
+        for (EntityRef entity : entityRefs) {
+            entity.send(new DoDamageEvent(1));
+        }
+    }
+
+    @Benchmark
+    public void restore() {
+        for (int i = 0; i < entities; i++) {
+            RestorationAuthoritySystem.restore(entityRefs[i], healths[i], 1);
+        }
+    }
+
+    /**
+     * Registering base regeneration as done when the entities are loaded, i.e., for entities without regen component.
+     * <p>
+     * Each operation first removes the regen component registered by the previous one, which is included in the
+     * measurement.
+     */
+    @Benchmark
+    public void registerBaseRegen() {
+        for (EntityRef entity : entityRefs) {
+            entity.removeComponent(RegenComponent.class);
+            regenSystem.registerIndefinite(entity, BaseRegenAuthoritySystem.BASE_REGEN);
+        }
+    }
+
+    /** A full regeneration pass over all entities; the delta is above the regeneration sampling interval. */
+    @Benchmark
+    public void regenerate() {
+        regenSystem.update(0.25f);
+    }
+
+    @Benchmark
+    public void computeParticleOffsets(Blackhole blackhole) {
+        blackhole.consume(particleOffsets.computeOffsets(blockAppearance));
+    }
+}
@@ -0,0 +1,82 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.terasology.gestalt.naming.Name;
+import org.terasology.module.health.components.RegenComponent;
+import org.terasology.module.health.core.BaseRegenAuthoritySystem;
+import org.terasology.module.health.time.Instant;
+
+import java.util.Random;
+
+/**
+ * Throughput of the per-entity bookkeeping of regeneration actions done by the {@link RegenAuthoritySystem} on every
+ * regeneration tick, with plain {@link RegenComponent} instances standing in for entities.
+ * <p>
+ * The full regeneration pass, including the collector events, is covered by the {@link HealthPipelineBenchmark}. Each
+ * invocation processes {@code entities} components, so the reported ops/s are per tick. Run with {@code -prof gc} to see
+ * the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RegenActionsBenchmark {
+
+    private static final Name POTION_REGEN = new Name("health:benchmarkPotionRegen");
+
+    @Param({"1000", "100000", "1000000"})
+    public int entities;
+
+    /** The actions of each entity at the start of a tick. */
+    private RegenComponent[] templates;
+    /** The components processed by an operation, reset from the templates at its start. */
+    private RegenComponent[] regens;
+    private Instant now;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        templates = new RegenComponent[entities];
+        regens = new RegenComponent[entities];
+        for (int i = 0; i < entities; i++) {
+            RegenComponent template = new RegenComponent();
+            template.actions.put(BaseRegenAuthoritySystem.BASE_REGEN, Instant.NEVER);
+            if (random.nextBoolean()) {
+                template.actions.put(POTION_REGEN, Instant.fromMillis(random.nextInt(100_000)));
+            }
+            templates[i] = template;
+            regens[i] = new RegenComponent();
+        }
+        now = Instant.fromMillis(50_000);
+    }
+
+    /**
+     * Removing expired actions, as done for every regenerating entity on every regeneration tick.
+     * <p>
+     * Expiring actions modifies the components, so each operation first copies the actions of the templates, which is
+     * included in the measurement.
+     */
+    @Benchmark
+    public void expireActions(Blackhole blackhole) {
+        for (int i = 0; i < entities; i++) {
+            RegenComponent regen = regens[i];
+            regen.actions.clear();
+            regen.actions.putAll(templates[i].actions);
+            blackhole.consume(regen.actions.values().removeIf(endTime -> endTime.isBefore(now)));
+        }
+    }
+}
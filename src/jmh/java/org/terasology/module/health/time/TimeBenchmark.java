@@ -0,0 +1,76 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.time;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * Throughput of the {@link Instant} and {@link Duration} operations used for every registered regeneration action.
+ * <p>
+ * Each invocation processes {@code entities} values, so the reported ops/s are per batch. Run with {@code -prof gc} to
+ * see the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TimeBenchmark {
+
+    private static final String[] DURATIONS = {"400ms", "1.2s", "5s", "250", "-1"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int entities;
+
+    private Instant[] endTimes;
+    private Duration[] durations;
+    private Instant now;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        endTimes = new Instant[entities];
+        durations = new Duration[entities];
+        for (int i = 0; i < entities; i++) {
+            endTimes[i] = random.nextInt(10) == 0 ? Instant.NEVER : Instant.fromMillis(random.nextInt(100_000));
+            durations[i] = Duration.fromMillis(random.nextInt(10_000));
+        }
+        now = Instant.fromMillis(50_000);
+    }
+
+    /** Expiration check as done for every action on every regeneration tick. */
+    @Benchmark
+    public void isBefore(Blackhole blackhole) {
+        for (Instant endTime : endTimes) {
+            blackhole.consume(endTime.isBefore(now));
+        }
+    }
+
+    /** Computing and merging end times as done when registering regeneration actions. */
+    @Benchmark
+    public void plusAndMax(Blackhole blackhole) {
+        for (int i = 0; i < entities; i++) {
+            blackhole.consume(endTimes[i].max(now.plus(durations[i])));
+        }
+    }
+
+    /** Parsing human-friendly durations, which hits the per-string cache after the first call. */
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (int i = 0; i < entities; i++) {
+            blackhole.consume(Duration.parse(DURATIONS[i % DURATIONS.length]));
+        }
+    }
+}
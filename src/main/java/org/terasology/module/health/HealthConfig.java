@@ -0,0 +1,121 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health;
+
+import org.terasology.engine.config.flexible.AutoConfig;
+import org.terasology.engine.config.flexible.Setting;
+import org.terasology.engine.config.flexible.constraints.NumberRangeConstraint;
+
+import static org.terasology.engine.config.flexible.SettingArgument.constraint;
+import static org.terasology.engine.config.flexible.SettingArgument.defaultValue;
+import static org.terasology.engine.config.flexible.SettingArgument.description;
+import static org.terasology.engine.config.flexible.SettingArgument.name;
+import static org.terasology.engine.config.flexible.SettingArgument.type;
+
+/**
+ * Settings for the performance-related behavior of the Health module.
+ * <p>
+ * The config is registered automatically and can be injected into systems via {@code @In}.
+ */
+public class HealthConfig extends AutoConfig {
+
+    public final Setting<Float> damageOverlayMaxDistance = setting(
+            type(Float.class),
+            defaultValue(64f),
+            name("Damage overlay distance"),
+            description("Maximum distance (in blocks) from the camera at which block damage is rendered."),
+            constraint(new NumberRangeConstraint<>(0f, 512f, true, true))
+    );
+
+    public final Setting<Integer> damageParticleCoalesceWindowMs = setting(
+            type(Integer.class),
+            defaultValue(250),
+            name("Damage particle coalesce window (ms)"),
+            description("Hits on a block within this time after its last particle effect reuse the live effect."),
+            constraint(new NumberRangeConstraint<>(0, 5000, true, true))
+    );
+
+    public final Setting<Integer> damageParticleBudgetPerTick = setting(
+            type(Integer.class),
+            defaultValue(32),
+            name("Damage particle budget per tick"),
+            description("Maximum number of damage particle effects created per tick; the most distant effects are dropped first."),
+            constraint(new NumberRangeConstraint<>(0, 1024, true, true))
+    );
+
+    public final Setting<Boolean> clientSideDamageParticles = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("Client-side damage particles"),
+            description("Send a lightweight event to nearby clients and let them create damage particles locally, "
+                    + "instead of replicating particle entities.")
+    );
+
+    public final Setting<Float> damageEffectBroadcastRadius = setting(
+            type(Float.class),
+            defaultValue(64f),
+            name("Damage effect broadcast radius"),
+            description("Clients with a character within this distance (in blocks) receive client-side damage effects."),
+            constraint(new NumberRangeConstraint<>(0f, 512f, true, true))
+    );
+
+    public final Setting<Float> damageFeedbackRadius = setting(
+            type(Float.class),
+            defaultValue(64f),
+            name("Damage feedback radius"),
+            description("Damage particles and sounds are skipped if no player is within this distance (in blocks)."),
+            constraint(new NumberRangeConstraint<>(0f, 512f, true, true))
+    );
+
+    public final Setting<Integer> damageSoundIntervalMs = setting(
+            type(Integer.class),
+            defaultValue(100),
+            name("Damage sound interval (ms)"),
+            description("Minimum time between two damage sounds of the same entity or the same area."),
+            constraint(new NumberRangeConstraint<>(0, 5000, true, true))
+    );
+
+    public final Setting<Integer> damageSoundBudgetPerTick = setting(
+            type(Integer.class),
+            defaultValue(16),
+            name("Damage sound budget per tick"),
+            description("Maximum number of damage sounds played per tick."),
+            constraint(new NumberRangeConstraint<>(0, 1024, true, true))
+    );
+
+    public final Setting<Integer> observedHealthUpdateIntervalMs = setting(
+            type(Integer.class),
+            defaultValue(250),
+            name("Observed health update interval (ms)"),
+            description("Minimum time between two updates of the quantized health sent to clients other than the owner."),
+            constraint(new NumberRangeConstraint<>(0, 5000, true, true))
+    );
+
+    public final Setting<Float> damagedBlockStreamRadius = setting(
+            type(Float.class),
+            defaultValue(64f),
+            name("Damaged block stream radius"),
+            description("Clients receive the damage levels of blocks in chunks within this distance (in blocks) of their character."),
+            constraint(new NumberRangeConstraint<>(0f, 512f, true, true))
+    );
+
+    public final Setting<Boolean> damageTraceEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("Damage trace"),
+            description("Record the damage and restoration of a sample of entities for the 'healthDamageTrace' command.")
+    );
+
+    public final Setting<Float> damageTraceSampleRate = setting(
+            type(Float.class),
+            defaultValue(0.01f),
+            name("Damage trace sample rate"),
+            description("The fraction of entities whose damage and restoration is recorded if the damage trace is enabled."),
+            constraint(new NumberRangeConstraint<>(0f, 1f, true, true))
+    );
+
+    @Override
+    public String getName() {
+        return "Health";
+    }
+}
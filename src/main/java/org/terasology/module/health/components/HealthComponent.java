@@ -2,41 +2,68 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.module.health.components;
 
+import org.terasology.engine.network.FieldReplicateType;
 import org.terasology.engine.network.Replicate;
+import org.terasology.engine.network.ReplicationCheck;
 import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.nui.properties.TextField;
+import org.terasology.reflection.metadata.FieldMetadata;
 
 /**
  * Provides Health to entity attached with HealthComponent. Contains the parameters
  * required for all health related events.
+ * <p>
+ * The exact health values and settings are only replicated to the owner of the entity. All other clients receive the
+ * quantized {@link #healthLevel}, which is updated at a limited rate.
  */
-public class HealthComponent implements Component<HealthComponent> {
+public class HealthComponent implements Component<HealthComponent>, ReplicationCheck {
+
+    /** The number of steps in which {@link #healthLevel} quantizes the health fraction. */
+    public static final int HEALTH_LEVELS = 100;
 
     /** Maximum allowed health, capped to this if exceeding this value. */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public int maxHealth = 20;
 
     /** Falling speed threshold above which damage is inflicted to entity. */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public float fallingDamageSpeedThreshold = 20;
 
     /** Horizontal speed threshold above which damage is inflicted to entity. */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public float horizontalDamageSpeedThreshold = 20;
 
     /** The multiplier used to calculate damage when horizontal or vertical threshold is crossed. */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public float excessSpeedDamageMultiplier = 10f;
 
 
     /** The current value of health. */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     @TextField
     public int currentHealth = 20;
 
+    /**
+     * [INTERNAL] The current health as fraction of the maximum health, quantized to [0..{@link #HEALTH_LEVELS}].
+     * <p>
+     * This is maintained by {@link org.terasology.module.health.systems.HealthReplicationAuthoritySystem} and is
+     * meant for observers, e.g., to render health bars or damage effects. It may lag behind the exact values.
+     */
+    @Replicate
+    public int healthLevel = HEALTH_LEVELS;
+
     /** Used to send Destroy event when health breaches zero. */
     public boolean destroyEntityOnNoHealth;
 
+    /**
+     * [INTERNAL] Whether the health is replicated to clients other than the owner.
+     * <p>
+     * This is disabled for blocks, as their damage is streamed to clients by
+     * {@link org.terasology.module.health.systems.BlockDamageStreamAuthoritySystem} instead. It is derived from the
+     * entity whenever the component is activated, so it is neither persisted nor replicated.
+     */
+    public transient boolean replicateToClients = true;
+
     @Override
     public void copyFrom(HealthComponent other) {
         this.maxHealth = other.maxHealth;
@@ -44,6 +71,13 @@ public class HealthComponent implements Component<HealthComponent> {
         this.horizontalDamageSpeedThreshold = other.horizontalDamageSpeedThreshold;
         this.excessSpeedDamageMultiplier = other.excessSpeedDamageMultiplier;
         this.currentHealth = other.currentHealth;
+        this.healthLevel = other.healthLevel;
         this.destroyEntityOnNoHealth = other.destroyEntityOnNoHealth;
+        this.replicateToClients = other.replicateToClients;
+    }
+
+    @Override
+    public boolean shouldReplicate(FieldMetadata<?, ?> field, boolean initial, boolean toOwner) {
+        return replicateToClients || toOwner;
     }
 }
@@ -3,6 +3,7 @@
 package org.terasology.module.health.components;
 
 import com.google.common.collect.Maps;
+import org.terasology.engine.network.FieldReplicateType;
 import org.terasology.engine.network.Replicate;
 import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.gestalt.naming.Name;
@@ -49,14 +50,19 @@ public class RegenComponent implements Component<RegenComponent> {
      * <p>
      * This is to compensate for inaccuracy when computing the regeneration amount in integers. The remainder is picked
      * up at the next iteration of the {@link org.terasology.module.health.systems.RegenAuthoritySystem}.
+     * <p>
+     * The remainder is only relevant to the authority and therefore not replicated.
      */
-    @Replicate
     public float remainder;
 
     /**
      * Registered regeneration action ids and their expiration timestamp.
+     * <p>
+     * Only replicated to the owner, as other clients have no use for the regeneration actions of an entity.
+     * <p>
+     * Components registered by the regen system may share an immutable, prebuilt action set until their actions change.
      */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public Map<Name, Instant> actions = new HashMap<>();
 
     @Override
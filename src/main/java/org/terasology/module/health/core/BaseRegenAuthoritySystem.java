@@ -15,7 +15,7 @@ import org.terasology.gestalt.naming.Name;
 import org.terasology.module.health.components.HealthComponent;
 import org.terasology.module.health.events.BeforeRegenEvent;
 import org.terasology.module.health.events.OnDamagedEvent;
-import org.terasology.module.health.events.RegisterRegenEvent;
+import org.terasology.module.health.systems.RegenAuthoritySystem;
 
 /**
  * A system adding core functionality and default behavior based on the mechanics defined in this module.
@@ -28,14 +28,21 @@ public class BaseRegenAuthoritySystem extends BaseComponentSystem {
     @In
     Time time;
 
+    @In
+    RegenAuthoritySystem regenSystem;
+
     /**
      * Register base regeneration action id if the {@link BaseRegenComponent} is present.
+     * <p>
+     * This is called for every entity with base regeneration when an area is loaded, so the action is registered
+     * directly with a prebuilt action set (see {@link RegenAuthoritySystem#registerIndefinite(EntityRef, Name)})
+     * instead of sending a {@link org.terasology.module.health.events.RegisterRegenEvent} for each entity.
      *
      * @param entity the entity with {@link BaseRegenComponent} that was created, loaded or extended with that component
      */
-    @ReceiveEvent(components = BaseRegenComponent.class)
+    @ReceiveEvent(components = {BaseRegenComponent.class, HealthComponent.class})
     public void registerBaseRegen(OnActivatedComponent event, EntityRef entity) {
-        entity.send(new RegisterRegenEvent(BASE_REGEN));
+        regenSystem.registerIndefinite(entity, BASE_REGEN);
     }
 
     /**
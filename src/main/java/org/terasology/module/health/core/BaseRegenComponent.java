@@ -3,27 +3,34 @@
 
 package org.terasology.module.health.core;
 
+import org.terasology.engine.network.FieldReplicateType;
 import org.terasology.engine.network.Replicate;
 import org.terasology.gestalt.entitysystem.component.Component;
 
 /**
  * Configuration for the base regeneration as defined by {@link BaseRegenAuthoritySystem#BASE_REGEN}.
+ * <p>
+ * The configuration is only replicated to the owner, which uses it to predict the regeneration of its character.
  */
 public class BaseRegenComponent implements Component<BaseRegenComponent> {
 
     /**
      * Amount of health points restored per (real-time) second.
      */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public float regenRate;
 
     /**
      * The cool down in seconds before the base regeneration applies after taking damage.
      */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public float waitBeforeRegen;
 
-    /** The last game time in milliseconds at which the entity received damage. */
+    /**
+     * The last game time in milliseconds at which the entity received damage.
+     * <p>
+     * This changes with every hit and is not replicated; clients track hits on their own character themselves.
+     */
     public long lastHitTimestampInMs;
 
     @Override
@@ -0,0 +1,52 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.events;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.terasology.engine.network.OwnerEvent;
+import org.terasology.engine.world.block.family.BlockFamily;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * A <i>notification event</i> asking a client to show a block damage particle effect.
+ * <p>
+ * If client-side damage particles are enabled, the authority sends this event to the character of each client near
+ * the damaged block instead of creating a replicated particle entity. The client creates the particle effect locally.
+ */
+@OwnerEvent
+public class BlockDamageEffectEvent implements Event {
+    private final Vector3f position;
+    private final BlockFamily blockFamily;
+    private final float intensity;
+
+    /**
+     * INTERNAL: Only required for internal replication of network events
+     */
+    BlockDamageEffectEvent() {
+        this(new Vector3f(), null, 0);
+    }
+
+    /**
+     * @param position the location of the damaged block
+     * @param blockFamily the family of the damaged block
+     * @param intensity the damage dealt relative to the block's max health, in [0..1]
+     */
+    public BlockDamageEffectEvent(Vector3fc position, BlockFamily blockFamily, float intensity) {
+        this.position = new Vector3f(position);
+        this.blockFamily = blockFamily;
+        this.intensity = intensity;
+    }
+
+    public Vector3fc getPosition() {
+        return position;
+    }
+
+    public BlockFamily getBlockFamily() {
+        return blockFamily;
+    }
+
+    public float getIntensity() {
+        return intensity;
+    }
+}
@@ -0,0 +1,77 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.events;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.network.OwnerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * A <i>notification event</i> informing a client about the damage levels of damaged blocks in a chunk.
+ * <p>
+ * The authority sends this event to the character of each client near a chunk with damaged blocks. A snapshot replaces
+ * all damage levels the client knows for the chunk, while a delta only updates the contained blocks. An empty snapshot
+ * tells the client to forget about the chunk, e.g., because it moved out of range. A {@link #reset() reset} tells the
+ * client to forget about all chunks, as the authority starts streaming to it from scratch.
+ * <p>
+ * The entries are packed into {@value #ENTRY_SIZE} bytes per block: the index of the block within the chunk as 16 bit
+ * unsigned big-endian integer, followed by the damage level in the lower 4 bits. A level of 0 means the block is not
+ * damaged (anymore).
+ */
+@OwnerEvent
+public class BlockDamageLevelsEvent implements Event {
+    /** The number of bytes per packed entry. */
+    public static final int ENTRY_SIZE = 3;
+
+    private final Vector3i chunkPosition;
+    private final boolean snapshot;
+    private final byte[] entries;
+    private final boolean reset;
+
+    /**
+     * INTERNAL: Only required for internal replication of network events
+     */
+    BlockDamageLevelsEvent() {
+        this(new Vector3i(), false, new byte[0]);
+    }
+
+    /**
+     * @param chunkPosition the position of the chunk the entries belong to
+     * @param snapshot whether the entries replace all known damage levels of the chunk
+     * @param entries the packed entries
+     */
+    public BlockDamageLevelsEvent(Vector3ic chunkPosition, boolean snapshot, byte[] entries) {
+        this(chunkPosition, snapshot, entries, false);
+    }
+
+    private BlockDamageLevelsEvent(Vector3ic chunkPosition, boolean snapshot, byte[] entries, boolean reset) {
+        this.chunkPosition = new Vector3i(chunkPosition);
+        this.snapshot = snapshot;
+        this.entries = entries;
+        this.reset = reset;
+    }
+
+    /**
+     * An event telling the client to forget the damage levels of all chunks, sent before the first snapshots.
+     */
+    public static BlockDamageLevelsEvent reset() {
+        return new BlockDamageLevelsEvent(new Vector3i(), true, new byte[0], true);
+    }
+
+    public Vector3ic getChunkPosition() {
+        return chunkPosition;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public byte[] getEntries() {
+        return entries;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+}
@@ -0,0 +1,80 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.events;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Send this event to damage multiple blocks at once, e.g., for tools mining a 3×3 area or a whole ore vein.
+ * <p>
+ * The event can be sent to any entity, usually the instigator or the tool used. It is handled by the
+ * {@link org.terasology.module.health.systems.BlockDamageAuthoritySystem BlockDamageAuthoritySystem} which handles all
+ * affected blocks together.
+ * <ul>
+ *     <li>Blocks which already have an entity, or whose entity is defined by a prefab, receive a regular
+ *     {@link DoDamageEvent}.</li>
+ *     <li>For all other blocks, the damage is computed from the block's hardness and the material multipliers of the
+ *     damage type. Blocks destroyed outright do not get an entity and no
+ *     {@link org.terasology.engine.logic.health.DestroyEvent DestroyEvent}; they are replaced with air in a single
+ *     world update, dropped as one item stack per block family, and reported in a single
+ *     {@link OnBlockRegionDestroyedEvent}.</li>
+ *     <li>Blocks surviving the damage receive a regular {@link DoDamageEvent}.</li>
+ * </ul>
+ */
+public class DoBlockRegionDamageEvent implements Event {
+    private final Set<Vector3ic> positions;
+    private final int amount;
+    private final Prefab damageType;
+    private final EntityRef instigator;
+    private final EntityRef directCause;
+
+    /**
+     * @param positions the positions of the blocks to damage
+     * @param amount the amount of damage dealt to each block
+     * @param damageType the type of the damage being dealt
+     * @param instigator the instigator of the damage (which entity caused it)
+     * @param directCause the tool used to cause the damage
+     */
+    public DoBlockRegionDamageEvent(Collection<? extends Vector3ic> positions, int amount, Prefab damageType,
+                                    EntityRef instigator, EntityRef directCause) {
+        Preconditions.checkArgument(amount >= 0, "damage amount must be non-negative");
+        ImmutableSet.Builder<Vector3ic> builder = ImmutableSet.builder();
+        for (Vector3ic position : positions) {
+            builder.add(new Vector3i(position));
+        }
+        this.positions = builder.build();
+        this.amount = amount;
+        this.damageType = damageType;
+        this.instigator = instigator;
+        this.directCause = directCause;
+    }
+
+    public Set<Vector3ic> getPositions() {
+        return positions;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public Prefab getDamageType() {
+        return damageType;
+    }
+
+    public EntityRef getInstigator() {
+        return instigator;
+    }
+
+    public EntityRef getDirectCause() {
+        return directCause;
+    }
+}
@@ -0,0 +1,51 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.events;
+
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.world.block.Block;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.Map;
+
+/**
+ * A <i>notification event</i> that blocks were destroyed by a {@link DoBlockRegionDamageEvent}.
+ * <p>
+ * This event is sent to the same entity the {@link DoBlockRegionDamageEvent} was sent to. Systems which react to the
+ * destruction of single blocks, e.g., to create block drops, can use it to handle all destroyed blocks at once.
+ */
+public class OnBlockRegionDestroyedEvent implements Event {
+    private final Map<Vector3ic, Block> destroyedBlocks;
+    private final Prefab damageType;
+    private final EntityRef instigator;
+    private final EntityRef directCause;
+
+    public OnBlockRegionDestroyedEvent(Map<Vector3ic, Block> destroyedBlocks, Prefab damageType, EntityRef instigator,
+                                       EntityRef directCause) {
+        this.destroyedBlocks = destroyedBlocks;
+        this.damageType = damageType;
+        this.instigator = instigator;
+        this.directCause = directCause;
+    }
+
+    /**
+     * The positions of the destroyed blocks, mapped to the block that was at that position before.
+     */
+    public Map<Vector3ic, Block> getDestroyedBlocks() {
+        return destroyedBlocks;
+    }
+
+    public Prefab getDamageType() {
+        return damageType;
+    }
+
+    public EntityRef getInstigator() {
+        return instigator;
+    }
+
+    public EntityRef getDirectCause() {
+        return directCause;
+    }
+}
@@ -0,0 +1,228 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.Priority;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.health.DestroyEvent;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.events.BeforeDamagedEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.events.OnDamagedEvent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters, gauges, and latency histograms describing the work done by the health module.
+ * <p>
+ * Systems report their work via {@link #count(Counter)}, {@link #setGauge(Gauge, long)}, and
+ * {@link #record(Phase, long)}; the damage events are counted by this system itself. The values are aggregated in
+ * one-second windows: rates and latencies refer to the last completed window, while totals accumulate over the whole
+ * session. At the end of each window the metrics are {@link HealthMetricsSink#publish(HealthMetrics) published} to all
+ * registered sinks.
+ * <p>
+ * Recording a value only increments primitive fields, so the instrumentation can stay enabled in production.
+ */
+@RegisterSystem
+@Share(HealthMetrics.class)
+public class HealthMetrics extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /** Things happening in the health pipeline which are counted. */
+    public enum Counter {
+        DO_DAMAGE,
+        BEFORE_DAMAGED,
+        ON_DAMAGED,
+        DESTROY,
+        REGEN_TICK,
+        PARTICLE_EFFECT,
+        DAMAGE_SOUND
+    }
+
+    /** Sizes of the health state which are sampled. */
+    public enum Gauge {
+        REGEN_ENTITIES,
+        DAMAGED_BLOCKS
+    }
+
+    /** Phases of the health pipeline whose latency is recorded. */
+    public enum Phase {
+        DAMAGE,
+        BLOCK_REGION_DAMAGE,
+        REGEN,
+        RENDER_OVERLAY,
+        BLOCK_DAMAGE_STREAM,
+        HEALTH_REPLICATION
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthMetrics.class);
+    private static final float WINDOW_SECONDS = 1f;
+    private static final int WINDOWS_PER_MINUTE = 60;
+
+    private final long[] totals = new long[Counter.values().length];
+    private final long[] windowCounts = new long[Counter.values().length];
+    private final float[] rates = new float[Counter.values().length];
+    /** The counts of the last minute, one slot per window. */
+    private final long[][] minuteCounts = new long[Counter.values().length][WINDOWS_PER_MINUTE];
+    private final long[] gauges = new long[Gauge.values().length];
+    private final long[] phaseTotalMicros = new long[Phase.values().length];
+    private final Map<Phase, LatencyHistogram> windowLatencies = new EnumMap<>(Phase.class);
+    private final Map<Phase, LatencyHistogram> latencies = new EnumMap<>(Phase.class);
+    private final List<HealthMetricsSink> sinks = new ArrayList<>();
+    private float windowTime;
+    private int minuteSlot;
+
+    public HealthMetrics() {
+        for (Phase phase : Phase.values()) {
+            windowLatencies.put(phase, new LatencyHistogram());
+            latencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        windowTime += delta;
+        if (windowTime < WINDOW_SECONDS) {
+            return;
+        }
+        for (int i = 0; i < windowCounts.length; i++) {
+            rates[i] = windowCounts[i] / windowTime;
+            minuteCounts[i][minuteSlot] = windowCounts[i];
+            windowCounts[i] = 0;
+        }
+        minuteSlot = (minuteSlot + 1) % WINDOWS_PER_MINUTE;
+        for (Phase phase : Phase.values()) {
+            phaseTotalMicros[phase.ordinal()] += windowLatencies.get(phase).getTotalMicros();
+            latencies.get(phase).copyFrom(windowLatencies.get(phase));
+            windowLatencies.get(phase).reset();
+        }
+        windowTime = 0;
+
+        for (HealthMetricsSink sink : sinks) {
+            try {
+                sink.publish(this);
+            } catch (RuntimeException e) {
+                logger.warn("Health metrics sink {} failed", sink, e);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    public void count(Counter counter) {
+        totals[counter.ordinal()]++;
+        windowCounts[counter.ordinal()]++;
+    }
+
+    public void setGauge(Gauge gauge, long value) {
+        gauges[gauge.ordinal()] = value;
+    }
+
+    /**
+     * Record the latency of a phase.
+     *
+     * @param phase the phase of the health pipeline
+     * @param startNanos the start of the phase as returned by {@link System#nanoTime()}
+     */
+    public void record(Phase phase, long startNanos) {
+        windowLatencies.get(phase).record(System.nanoTime() - startNanos);
+    }
+
+    public void addSink(HealthMetricsSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(HealthMetricsSink sink) {
+        sinks.remove(sink);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** The number of occurrences per second in the last completed window. */
+    public float getRate(Counter counter) {
+        return rates[counter.ordinal()];
+    }
+
+    /** The number of occurrences since the start of the session. */
+    public long getTotal(Counter counter) {
+        return totals[counter.ordinal()];
+    }
+
+    /** The number of occurrences in the last 60 completed windows, i.e., roughly the last minute. */
+    public long getLastMinute(Counter counter) {
+        long sum = 0;
+        for (long count : minuteCounts[counter.ordinal()]) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public long getGauge(Gauge gauge) {
+        return gauges[gauge.ordinal()];
+    }
+
+    /** The latencies of the phase in the last completed window. */
+    public LatencyHistogram getLatency(Phase phase) {
+        return latencies.get(phase);
+    }
+
+    /** The time spent in the phase in all completed windows since the start of the session. */
+    public long getTotalMicros(Phase phase) {
+        return phaseTotalMicros[phase.ordinal()];
+    }
+
+    /**
+     * A human-readable summary of all metrics, e.g., for the console.
+     */
+    public String describe() {
+        StringBuilder builder = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            builder.append(String.format("%-20s %10.1f/s %12d total%n", counter, getRate(counter), getTotal(counter)));
+        }
+        for (Gauge gauge : Gauge.values()) {
+            builder.append(String.format("%-20s %10d%n", gauge, getGauge(gauge)));
+        }
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram latency = getLatency(phase);
+            builder.append(String.format("%-20s %6d calls, mean %.1fµs, p50 <%dµs, p99 <%dµs, max %dµs%n", phase,
+                    latency.getCount(), latency.getMeanMicros(), latency.getPercentileMicros(50),
+                    latency.getPercentileMicros(99), latency.getMaxMicros()));
+        }
+        return builder.toString();
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onDoDamage(DoDamageEvent event, EntityRef entity) {
+        count(Counter.DO_DAMAGE);
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onBeforeDamaged(BeforeDamagedEvent event, EntityRef entity) {
+        count(Counter.BEFORE_DAMAGED);
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onDamaged(OnDamagedEvent event, EntityRef entity) {
+        count(Counter.ON_DAMAGED);
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onDestroy(DestroyEvent event, EntityRef entity) {
+        count(Counter.DESTROY);
+    }
+}
@@ -0,0 +1,21 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.metrics;
+
+/**
+ * Receives the health metrics once per second, e.g., to forward them to an external monitoring system.
+ *
+ * @see HealthMetrics#addSink(HealthMetricsSink)
+ */
+@FunctionalInterface
+public interface HealthMetricsSink {
+
+    /**
+     * Publish the metrics of the last completed one-second window.
+     * <p>
+     * This is called on the game thread; implementations should read what they need and return quickly.
+     *
+     * @param metrics the metrics to read the rates, totals, gauges, and latencies from
+     */
+    void publish(HealthMetrics metrics);
+}
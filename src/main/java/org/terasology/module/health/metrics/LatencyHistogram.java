@@ -0,0 +1,90 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of latencies with exponentially growing buckets.
+ * <p>
+ * Bucket {@code i} counts latencies in {@code [2^(i-1), 2^i)} microseconds (bucket 0 holds everything below 1µs), so
+ * recording a value neither allocates nor depends on the number of recorded values. Percentiles are reported as the
+ * upper bound of the bucket they fall into.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Record a single latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets[bucket]++;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /** The total of all recorded latencies in microseconds. */
+    public long getTotalMicros() {
+        return totalNanos / 1000;
+    }
+
+    /** The average of all recorded latencies in microseconds, or 0 if nothing was recorded. */
+    public double getMeanMicros() {
+        return count == 0 ? 0 : totalNanos / 1000.0 / count;
+    }
+
+    /** The maximum of all recorded latencies in microseconds. */
+    public long getMaxMicros() {
+        return maxNanos / 1000;
+    }
+
+    /**
+     * The upper bound of the given percentile of recorded latencies in microseconds.
+     *
+     * @param percentile the percentile in [0..100]
+     * @return the upper bound of the bucket containing the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= threshold) {
+                return 1L << bucket;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    void copyFrom(LatencyHistogram other) {
+        System.arraycopy(other.buckets, 0, buckets, 0, BUCKETS);
+        count = other.count;
+        totalNanos = other.totalNanos;
+        maxNanos = other.maxNanos;
+    }
+
+    void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+}
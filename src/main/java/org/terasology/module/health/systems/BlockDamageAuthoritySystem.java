@@ -2,33 +2,49 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.module.health.systems;
 
+import org.joml.Vector3f;
+import org.joml.Vector3ic;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.event.EventPriority;
 import org.terasology.engine.entitySystem.event.Priority;
+import org.terasology.engine.entitySystem.prefab.Prefab;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.NetFilterEvent;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.logic.characters.events.AttackEvent;
+import org.terasology.engine.logic.inventory.InventoryManager;
+import org.terasology.engine.logic.inventory.PickupBuilder;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.utilities.random.FastRandom;
 import org.terasology.engine.utilities.random.Random;
+import org.terasology.engine.world.BlockEntityRegistry;
+import org.terasology.engine.world.WorldProvider;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.block.entity.damage.BlockDamageModifierComponent;
 import org.terasology.engine.world.block.family.BlockFamily;
+import org.terasology.engine.world.block.items.BlockItemFactory;
 import org.terasology.engine.world.block.regions.ActAsBlockComponent;
 import org.terasology.engine.world.block.tiles.WorldAtlas;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.math.TeraMath;
 import org.terasology.module.health.components.BlockDamagedComponent;
-import org.terasology.module.health.components.DamageSoundComponent;
 import org.terasology.module.health.components.HealthComponent;
 import org.terasology.module.health.core.BaseRegenComponent;
 import org.terasology.module.health.events.BeforeDamagedEvent;
+import org.terasology.module.health.events.DoBlockRegionDamageEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.events.OnBlockRegionDestroyedEvent;
 import org.terasology.module.health.events.OnDamagedEvent;
 import org.terasology.module.health.events.OnFullyHealedEvent;
+import org.terasology.module.health.metrics.HealthMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This system is responsible for giving blocks health when they are attacked and
@@ -36,21 +52,50 @@ import org.terasology.module.health.events.OnFullyHealedEvent;
  */
 @RegisterSystem
 public class BlockDamageAuthoritySystem extends BaseComponentSystem {
-    private static final float BLOCK_REGEN_SECONDS = 4.0f;
+    /** The maximum number of blocks in a single item stack dropped for a {@link DoBlockRegionDamageEvent}. */
+    private static final int MAX_DROP_STACK = 99;
+    /** The lifespan of the pickups dropped for a {@link DoBlockRegionDamageEvent}, as used for single blocks. */
+    private static final int DROP_LIFESPAN_SECONDS = 60;
 
     @In
     private EntityManager entityManager;
 
+    @In
+    private BlockDamageProfiles blockDamageProfiles;
+
+    @In
+    private BlockManager blockManager;
+
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private BlockEntityRegistry blockEntityRegistry;
+
     @In
     private WorldAtlas worldAtlas;
 
+    @In
+    private InventoryManager inventoryManager;
+
+    @In
+    private HealthMetrics metrics;
+
     private Random random = new FastRandom();
+    private BlockItemFactory blockItemFactory;
+    private PickupBuilder pickupBuilder;
+
+    @Override
+    public void initialise() {
+        blockItemFactory = new BlockItemFactory(entityManager);
+        pickupBuilder = new PickupBuilder(entityManager, inventoryManager);
+    }
 
     /** Consumes damage event if block is indestructible. */
     @Priority(EventPriority.PRIORITY_HIGH)
     @ReceiveEvent
     public void beforeDamaged(BeforeDamagedEvent event, EntityRef blockEntity, BlockComponent blockComp) {
-        if (!blockComp.getBlock().isDestructible()) {
+        if (!blockDamageProfiles.get(blockComp.getBlock()).isDestructible()) {
             event.consume();
         }
     }
@@ -59,7 +104,7 @@ public class BlockDamageAuthoritySystem extends BaseComponentSystem {
     @Priority(EventPriority.PRIORITY_HIGH)
     @ReceiveEvent
     public void beforeDamaged(BeforeDamagedEvent event, EntityRef blockEntity, ActAsBlockComponent blockComp) {
-        if (blockComp.block != null && !blockComp.block.getArchetypeBlock().isDestructible()) {
+        if (blockComp.block != null && !blockDamageProfiles.get(blockComp.block.getArchetypeBlock()).isDestructible()) {
             event.consume();
         }
     }
@@ -93,29 +138,134 @@ public class BlockDamageAuthoritySystem extends BaseComponentSystem {
     @NetFilterEvent(netFilter = RegisterMode.AUTHORITY)
     @ReceiveEvent
     public void beforeDamage(BeforeDamagedEvent event, EntityRef entity, BlockComponent blockComp) {
-        beforeDamageCommon(event, blockComp.getBlock());
+        beforeDamageCommon(event, blockDamageProfiles.get(blockComp.getBlock()));
     }
 
     @NetFilterEvent(netFilter = RegisterMode.AUTHORITY)
     @ReceiveEvent
     public void beforeDamage(BeforeDamagedEvent event, EntityRef entity, ActAsBlockComponent blockComp) {
         if (blockComp.block != null) {
-            beforeDamageCommon(event, blockComp.block.getArchetypeBlock());
+            beforeDamageCommon(event, blockDamageProfiles.get(blockComp.block.getArchetypeBlock()));
+        }
+    }
+
+    private void beforeDamageCommon(BeforeDamagedEvent event, BlockDamageProfile profile) {
+        float multiplier = materialDamageMultiplier(event.getDamageType(), profile);
+        if (multiplier != 1f) {
+            event.multiply(multiplier);
         }
     }
 
-    private void beforeDamageCommon(BeforeDamagedEvent event, Block block) {
-        if (event.getDamageType() != null) {
-            BlockDamageModifierComponent blockDamage = event.getDamageType().getComponent(BlockDamageModifierComponent.class);
+    /**
+     * The combined material damage multiplier of the damage type for all categories of the block.
+     *
+     * @param damageType the damage type, may be {@code null}
+     * @param profile the damage profile of the damaged block
+     * @return the product of all matching material multipliers, or 1 if none applies
+     */
+    private static float materialDamageMultiplier(Prefab damageType, BlockDamageProfile profile) {
+        float multiplier = 1f;
+        if (damageType != null) {
+            BlockDamageModifierComponent blockDamage = damageType.getComponent(BlockDamageModifierComponent.class);
             if (blockDamage != null) {
-                BlockFamily blockFamily = block.getBlockFamily();
-                for (String category : blockFamily.getCategories()) {
+                for (String category : profile.getCategories()) {
                     if (blockDamage.materialDamageMultiplier.containsKey(category)) {
-                        event.multiply(blockDamage.materialDamageMultiplier.get(category));
+                        multiplier *= blockDamage.materialDamageMultiplier.get(category);
                     }
                 }
             }
         }
+        return multiplier;
+    }
+
+    /**
+     * Damages all blocks of a {@link DoBlockRegionDamageEvent} in one go.
+     * <p>
+     * Blocks which already have an entity, or whose entity is defined by a prefab, go through the regular damage event
+     * flow, as they may carry health state or custom damage handling. For all other blocks, the damage is computed
+     * from their {@link BlockDamageProfile}:
+     * <ul>
+     *     <li>Blocks destroyed outright by the damage never get an entity. They are replaced with air in a single
+     *     world update, their drops are created per block family, and they are reported in a single
+     *     {@link OnBlockRegionDestroyedEvent}.</li>
+     *     <li>Blocks which survive the damage receive a regular {@link DoDamageEvent}, which gives them health.</li>
+     * </ul>
+     *
+     * @param event the request to damage multiple blocks
+     * @param entity the entity the event was sent to, receives the {@link OnBlockRegionDestroyedEvent}
+     */
+    @NetFilterEvent(netFilter = RegisterMode.AUTHORITY)
+    @ReceiveEvent
+    public void onBlockRegionDamage(DoBlockRegionDamageEvent event, EntityRef entity) {
+        if (event.getAmount() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        Block air = blockManager.getBlock(BlockManager.AIR_ID);
+        Map<Vector3ic, Block> destroyedBlocks = new HashMap<>();
+        Map<Vector3ic, Block> replacements = new HashMap<>();
+
+        for (Vector3ic position : event.getPositions()) {
+            Block block = worldProvider.getBlock(position);
+            if (block == air) {
+                continue;
+            }
+            EntityRef blockEntity = blockEntityRegistry.getExistingEntityAt(position);
+            if (blockEntity.exists() || block.getPrefab().isPresent()) {
+                blockEntityRegistry.getBlockEntityAt(position).send(new DoDamageEvent(event.getAmount(),
+                        event.getDamageType(), event.getInstigator(), event.getDirectCause()));
+                continue;
+            }
+            BlockDamageProfile profile = blockDamageProfiles.get(block);
+            if (!profile.isDestructible()) {
+                continue;
+            }
+            int damage = TeraMath.floorToInt(event.getAmount() * materialDamageMultiplier(event.getDamageType(),
+                    profile));
+            if (damage >= profile.getMaxHealth()) {
+                destroyedBlocks.put(position, block);
+                replacements.put(position, air);
+            } else if (damage > 0) {
+                blockEntityRegistry.getBlockEntityAt(position).send(new DoDamageEvent(event.getAmount(),
+                        event.getDamageType(), event.getInstigator(), event.getDirectCause()));
+            }
+        }
+
+        if (!replacements.isEmpty()) {
+            worldProvider.setBlocks(replacements);
+            dropItems(destroyedBlocks);
+            entity.send(new OnBlockRegionDestroyedEvent(destroyedBlocks, event.getDamageType(), event.getInstigator(),
+                    event.getDirectCause()));
+        }
+        // surviving blocks record their damage in the DAMAGE phase as well
+        metrics.record(HealthMetrics.Phase.BLOCK_REGION_DAMAGE, start);
+    }
+
+    /**
+     * Create the item drops for blocks destroyed without an entity, one pickup per block family and stack.
+     * <p>
+     * Each pickup is placed at the first destroyed block of its family.
+     */
+    private void dropItems(Map<Vector3ic, Block> destroyedBlocks) {
+        Map<BlockFamily, Integer> counts = new HashMap<>();
+        Map<BlockFamily, Vector3ic> locations = new HashMap<>();
+        for (Map.Entry<Vector3ic, Block> destroyed : destroyedBlocks.entrySet()) {
+            BlockFamily family = destroyed.getValue().getBlockFamily();
+            counts.merge(family, 1, Integer::sum);
+            locations.putIfAbsent(family, destroyed.getKey());
+        }
+        for (Map.Entry<BlockFamily, Integer> count : counts.entrySet()) {
+            Vector3f location = new Vector3f(locations.get(count.getKey()));
+            int remaining = count.getValue();
+            while (remaining > 0) {
+                EntityRef item = blockItemFactory.newInstance(count.getKey(), Math.min(remaining, MAX_DROP_STACK));
+                if (!item.exists()) {
+                    break;
+                }
+                remaining -= MAX_DROP_STACK;
+                pickupBuilder.createPickupFor(item, location, DROP_LIFESPAN_SECONDS, true);
+            }
+        }
     }
 
     /** Causes damage to block without health component, leads to adding health component to the block. */
@@ -141,36 +291,27 @@ public class BlockDamageAuthoritySystem extends BaseComponentSystem {
     @ReceiveEvent
     public void beforeDamagedEnsureHealthPresent(BeforeDamagedEvent event, EntityRef blockEntity,
                                                  BlockComponent blockComponent) {
-        Block type = blockComponent.getBlock();
-        if (type.isDestructible()) {
+        BlockDamageProfile profile = blockDamageProfiles.get(blockComponent.getBlock());
+        if (profile.isDestructible()) {
 
             if (!blockEntity.hasComponent(HealthComponent.class)) {
                 HealthComponent healthComponent = new HealthComponent();
-                healthComponent.maxHealth = type.getHardness();
-                healthComponent.currentHealth = type.getHardness();
+                healthComponent.maxHealth = profile.getMaxHealth();
+                healthComponent.currentHealth = profile.getMaxHealth();
                 healthComponent.destroyEntityOnNoHealth = true;
+                // clients get the damage levels streamed by the BlockDamageStreamAuthoritySystem instead
+                healthComponent.replicateToClients = false;
 
                 blockEntity.addComponent(healthComponent);
             }
 
             if (!blockEntity.hasComponent(BaseRegenComponent.class)) {
                 BaseRegenComponent baseRegenComponent = new BaseRegenComponent();
-                baseRegenComponent.regenRate = type.getHardness() / BLOCK_REGEN_SECONDS;
+                baseRegenComponent.regenRate = profile.getRegenRate();
                 baseRegenComponent.waitBeforeRegen = 1f;
 
                 blockEntity.addComponent(baseRegenComponent);
             }
-
-            // Give the block entity a damage sound component to make the default damage authority system play sound
-            // effects when a block is damaged.
-            if (!blockEntity.hasComponent(DamageSoundComponent.class)) {
-                BlockFamily blockFamily = type.getBlockFamily();
-
-                DamageSoundComponent damageSounds = new DamageSoundComponent();
-                damageSounds.sounds.addAll(blockFamily.getArchetypeBlock().getSounds().getDigSounds());
-
-                blockEntity.addComponent(damageSounds);
-            }
         }
     }
 }
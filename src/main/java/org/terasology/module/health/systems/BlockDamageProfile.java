@@ -0,0 +1,58 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import com.google.common.collect.ImmutableList;
+import org.terasology.engine.audio.StaticSound;
+import org.terasology.engine.world.block.Block;
+
+import java.util.List;
+
+/**
+ * Immutable damage related properties of a {@link Block}, derived once from the block definition.
+ *
+ * @see BlockDamageProfiles
+ */
+public final class BlockDamageProfile {
+    /** The time in seconds a block takes to regenerate from 0 to full health. */
+    static final float BLOCK_REGEN_SECONDS = 4.0f;
+
+    private final int maxHealth;
+    private final float regenRate;
+    private final boolean destructible;
+    private final List<String> categories;
+    private final List<StaticSound> damageSounds;
+
+    BlockDamageProfile(Block block) {
+        this.maxHealth = block.getHardness();
+        this.regenRate = block.getHardness() / BLOCK_REGEN_SECONDS;
+        this.destructible = block.isDestructible();
+        this.categories = ImmutableList.copyOf(block.getBlockFamily().getCategories());
+        this.damageSounds = ImmutableList.copyOf(block.getBlockFamily().getArchetypeBlock().getSounds().getDigSounds());
+    }
+
+    /** The health of an undamaged block. */
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+
+    /** Amount of health points a damaged block regenerates per second. */
+    public float getRegenRate() {
+        return regenRate;
+    }
+
+    /** Whether the block can be damaged at all. */
+    public boolean isDestructible() {
+        return destructible;
+    }
+
+    /** The material categories of the block's family, used to look up material specific damage multipliers. */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /** The sounds to play when the block is damaged. */
+    public List<StaticSound> getDamageSounds() {
+        return damageSounds;
+    }
+}
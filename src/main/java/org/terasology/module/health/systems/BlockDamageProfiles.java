@@ -0,0 +1,54 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+
+import java.util.Arrays;
+
+/**
+ * A table of {@link BlockDamageProfile}s for all registered blocks, indexed by block id.
+ * <p>
+ * Profiles for all blocks known on initialisation are built upfront. Blocks registered at runtime get their profile on
+ * first access.
+ */
+@RegisterSystem
+@Share(BlockDamageProfiles.class)
+public class BlockDamageProfiles extends BaseComponentSystem {
+
+    @In
+    private BlockManager blockManager;
+
+    private BlockDamageProfile[] profiles = new BlockDamageProfile[0];
+
+    @Override
+    public void initialise() {
+        for (Block block : blockManager.listRegisteredBlocks()) {
+            get(block);
+        }
+    }
+
+    /**
+     * The damage profile of the given block.
+     *
+     * @param block a registered block
+     * @return the (cached) damage profile of the block
+     */
+    public BlockDamageProfile get(Block block) {
+        int index = Short.toUnsignedInt(block.getId());
+        if (index >= profiles.length) {
+            profiles = Arrays.copyOf(profiles, Math.max(index + 1, profiles.length * 2));
+        }
+        BlockDamageProfile profile = profiles[index];
+        if (profile == null) {
+            profile = new BlockDamageProfile(block);
+            profiles[index] = profile;
+        }
+        return profile;
+    }
+}
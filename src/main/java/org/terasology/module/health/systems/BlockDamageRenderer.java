@@ -6,8 +6,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import org.joml.Math;
+import org.joml.Vector3fc;
 import org.joml.Vector3i;
-import org.joml.Vector3ic;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
@@ -15,76 +15,166 @@ import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.entitySystem.systems.RenderSystem;
 import org.terasology.engine.registry.In;
-import org.terasology.engine.rendering.assets.texture.Texture;
 import org.terasology.engine.rendering.assets.texture.TextureRegionAsset;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.engine.rendering.world.WorldRenderer;
 import org.terasology.engine.rendering.world.selection.BlockSelectionRenderer;
-import org.terasology.engine.utilities.Assets;
-import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.block.regions.BlockRegionComponent;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.joml.geom.AABBf;
+import org.terasology.module.health.HealthConfig;
 import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.metrics.HealthMetrics;
 
-import java.util.Optional;
+import java.util.Map;
 
 /**
  * This system visualizes damaged blocks by rendering a damage overlay.
  * <p>
- * The system derives a damage effect level between 0 (full health / no damage) and 10 (0 health / full damage). Starting from level 1 to
- * level 10 the damage overlay effect is taken from the {@code CoreAssets:blockDamageEffects} texture atlas.
+ * The system derives a damage effect level between 0 (full health / no damage) and 10 (0 health / full damage). Damage
+ * levels of blocks are streamed to the client per chunk (see {@link BlockDamageStreamClientSystem}), while block
+ * regions use the quantized {@link HealthComponent#healthLevel}, as the exact health is not replicated to clients.
+ * Starting from level 1 to level 10 the damage overlay effect is taken from the {@code CoreAssets:blockDamageEffects}
+ * texture atlas.
  * <p>
  * To change the default damage effects the texture can be overridden.
+ * <p>
+ * Damage effects are only rendered if they are in sight of the active camera and within the
+ * {@link HealthConfig#damageOverlayMaxDistance maximum overlay distance}. Damaged blocks are tested per chunk, so all
+ * damaged blocks in a chunk outside the view are rejected with a single test.
  */
 @RegisterSystem(RegisterMode.CLIENT)
 public class BlockDamageRenderer extends BaseComponentSystem implements RenderSystem {
 
     private BlockSelectionRenderer blockSelectionRenderer;
+    private final Vector3i regionMarkPosition = new Vector3i();
+
+    private final AABBf bounds = new AABBf();
+    private float maxDistanceSquared;
 
     @In
     private EntityManager entityManager;
+    @In
+    private HealthAssetCache assets;
+    @In
+    private BlockDamageStreamClientSystem damageStream;
+    @In
+    private WorldRenderer worldRenderer;
+    @In
+    private HealthConfig config;
+    @In
+    private HealthMetrics metrics;
 
     @Override
     public void renderOverlay() {
         if (blockSelectionRenderer == null) {
-            Texture texture = Assets.getTextureRegion("CoreAssets:blockDamageEffects#1").get().getTexture();
-            blockSelectionRenderer = new BlockSelectionRenderer(texture);
+            TextureRegionAsset effect = assets.getDamageEffect(1);
+            if (effect == null) {
+                return;
+            }
+            blockSelectionRenderer = new BlockSelectionRenderer(effect.getTexture());
         }
+        long start = System.nanoTime();
         // group the entities into what texture they will use so that there is less recreating meshes (changing a
         // texture region on the BlockSelectionRenderer will recreate the mesh to use the different UV coordinates).
         Multimap<Integer, Vector3i> groupedEntitiesByEffect = ArrayListMultimap.create();
+        Multimap<Integer, BlockRegion> groupedRegionsByEffect = ArrayListMultimap.create();
 
-        for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class, BlockComponent.class)) {
-            HealthComponent health = entity.getComponent(HealthComponent.class);
-            if (health.currentHealth == health.maxHealth) {
+        Camera camera = worldRenderer.getActiveCamera();
+        float maxDistance = config.damageOverlayMaxDistance.get();
+        maxDistanceSquared = maxDistance * maxDistance;
+
+        for (Map.Entry<Vector3i, ChunkDamageLevels> chunk : damageStream.getDamagedChunks().entrySet()) {
+            Vector3i chunkPosition = chunk.getKey();
+            if (!isChunkVisible(camera, chunkPosition)) {
                 continue;
             }
-            BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
-            groupedEntitiesByEffect.put(getDamageEffectsNumber(health), blockComponent.getPosition(new Vector3i()));
+            for (Map.Entry<Integer, Integer> block : chunk.getValue().asMap().entrySet()) {
+                groupedEntitiesByEffect.put(block.getValue(),
+                        ChunkDamageLevels.blockPosition(chunkPosition, block.getKey(), new Vector3i()));
+            }
         }
         for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class, BlockRegionComponent.class)) {
             HealthComponent health = entity.getComponent(HealthComponent.class);
-            if (health.currentHealth == health.maxHealth) {
+            if (health.healthLevel >= HealthComponent.HEALTH_LEVELS) {
                 continue;
             }
-            BlockRegionComponent blockRegion = entity.getComponent(BlockRegionComponent.class);
-            for (Vector3ic blockPos : blockRegion.region) {
-                groupedEntitiesByEffect.put(getDamageEffectsNumber(health), new Vector3i(blockPos));
+            BlockRegion region = entity.getComponent(BlockRegionComponent.class).region;
+            if (isVisible(camera, region.minX() - 0.5f, region.minY() - 0.5f, region.minZ() - 0.5f,
+                    region.maxX() + 0.5f, region.maxY() + 0.5f, region.maxZ() + 0.5f)) {
+                groupedRegionsByEffect.put(getDamageEffectsNumber(health.healthLevel), region);
             }
         }
 
         // Bind the texture already as we know that the texture will be the same for each block effect, just different UV coordinates.
         blockSelectionRenderer.beginRenderOverlay();
 
-        for (Integer effectsNumber : groupedEntitiesByEffect.keySet()) {
-            Optional<TextureRegionAsset> texture =
-                    Assets.getTextureRegion("CoreAssets:blockDamageEffects#" + effectsNumber);
-            if (texture.isPresent()) {
-                blockSelectionRenderer.setEffectsTexture(texture.get());
+        for (int effectsNumber = 1; effectsNumber <= HealthAssetCache.DAMAGE_EFFECT_LEVELS; effectsNumber++) {
+            if (!groupedEntitiesByEffect.containsKey(effectsNumber) && !groupedRegionsByEffect.containsKey(effectsNumber)) {
+                continue;
+            }
+            TextureRegionAsset texture = assets.getDamageEffect(effectsNumber);
+            if (texture != null) {
+                blockSelectionRenderer.setEffectsTexture(texture);
                 for (Vector3i position : groupedEntitiesByEffect.get(effectsNumber)) {
                     blockSelectionRenderer.renderMark(position);
                 }
+                for (BlockRegion region : groupedRegionsByEffect.get(effectsNumber)) {
+                    renderRegionShell(region);
+                }
             }
         }
 
         blockSelectionRenderer.endRenderOverlay();
+        metrics.record(HealthMetrics.Phase.RENDER_OVERLAY, start);
+    }
+
+    /**
+     * Whether the given chunk is in sight and within the maximum overlay distance.
+     */
+    private boolean isChunkVisible(Camera camera, Vector3i chunkPosition) {
+        float minX = chunkPosition.x * Chunks.SIZE_X - 0.5f;
+        float minY = chunkPosition.y * Chunks.SIZE_Y - 0.5f;
+        float minZ = chunkPosition.z * Chunks.SIZE_Z - 0.5f;
+        return isVisible(camera, minX, minY, minZ, minX + Chunks.SIZE_X, minY + Chunks.SIZE_Y, minZ + Chunks.SIZE_Z);
+    }
+
+    /**
+     * Whether the given bounds are in sight of the camera and within the maximum overlay distance.
+     */
+    private boolean isVisible(Camera camera, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        if (camera == null) {
+            return true;
+        }
+        Vector3fc cameraPosition = camera.getPosition();
+        float dx = Math.max(0f, Math.max(minX - cameraPosition.x(), cameraPosition.x() - maxX));
+        float dy = Math.max(0f, Math.max(minY - cameraPosition.y(), cameraPosition.y() - maxY));
+        float dz = Math.max(0f, Math.max(minZ - cameraPosition.z(), cameraPosition.z() - maxZ));
+        if (dx * dx + dy * dy + dz * dz > maxDistanceSquared) {
+            return false;
+        }
+        return camera.hasInSight(bounds.setMin(minX, minY, minZ).setMax(maxX, maxY, maxZ));
+    }
+
+    /**
+     * Render the damage effect on the outer shell of a block region.
+     * <p>
+     * Blocks inside the region are fully covered by the shell, so marking them has no visible effect. Only visiting
+     * the shell makes the cost depend on the surface of the region instead of its volume, and the single reused
+     * position avoids allocations per marked block.
+     */
+    private void renderRegionShell(BlockRegion region) {
+        for (int x = region.minX(); x <= region.maxX(); x++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                boolean onShell = x == region.minX() || x == region.maxX() || y == region.minY() || y == region.maxY();
+                // inside the x/y boundary only the front and back face along z are part of the shell
+                int zStep = onShell ? 1 : Math.max(1, region.maxZ() - region.minZ());
+                for (int z = region.minZ(); z <= region.maxZ(); z += zStep) {
+                    blockSelectionRenderer.renderMark(regionMarkPosition.set(x, y, z));
+                }
+            }
+        }
     }
 
     /**
@@ -98,7 +188,17 @@ public class BlockDamageRenderer extends BaseComponentSystem implements RenderSy
         Preconditions.checkArgument(health.currentHealth >= 0);
         Preconditions.checkArgument(health.maxHealth > 0);
 
-        float damagePercentage = 1f - Math.clamp(0f, 1f, (float) health.currentHealth / health.maxHealth);
-        return Math.round(damagePercentage * 10);
+        return ChunkDamageLevels.damageLevel(health.currentHealth, health.maxHealth);
+    }
+
+    /**
+     * Compute the damage effect number from the quantized health level replicated to observers.
+     *
+     * @param healthLevel the health level in [0..{@link HealthComponent#HEALTH_LEVELS}]
+     * @return the effect number in [0..10] linear to damage percentage
+     * @see #getDamageEffectsNumber(HealthComponent)
+     */
+    int getDamageEffectsNumber(int healthLevel) {
+        return ChunkDamageLevels.damageLevel(healthLevel, HealthComponent.HEALTH_LEVELS);
     }
 }
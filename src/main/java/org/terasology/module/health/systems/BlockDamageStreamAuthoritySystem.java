@@ -0,0 +1,245 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.HealthConfig;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.events.BlockDamageLevelsEvent;
+import org.terasology.module.health.metrics.HealthMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams the damage levels of damaged blocks to nearby clients, chunk by chunk.
+ * <p>
+ * The system keeps the damage level of every damaged block with a {@link HealthComponent} per chunk. At the
+ * {@link HealthConfig#observedHealthUpdateIntervalMs update interval}, each client receives a
+ * {@link BlockDamageLevelsEvent}
+ * <ul>
+ *     <li>with a snapshot of a chunk that came into {@link HealthConfig#damagedBlockStreamRadius range},</li>
+ *     <li>with the changed blocks of a chunk already known to the client, or</li>
+ *     <li>with an empty snapshot for a chunk that went out of range.</li>
+ * </ul>
+ * Whenever the streaming to a client starts over, e.g., because its character changed or had no location for a while,
+ * it first receives a reset, so that it does not keep damage levels which are not updated anymore.
+ * Clients can thus render block damage without the block entities or their health being replicated; the
+ * {@link HealthComponent} of blocks is not {@link HealthComponent#replicateToClients replicated to clients} at all.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(BlockDamageStreamAuthoritySystem.class)
+public class BlockDamageStreamAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final byte[] NO_ENTRIES = new byte[0];
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private HealthConfig config;
+    @In
+    private HealthMetrics metrics;
+
+    private final Map<Vector3i, ChunkDamageLevels> damagedChunks = new HashMap<>();
+    private final DamagedChunkRanking ranking = new DamagedChunkRanking();
+    /** The blocks per chunk whose damage level changed since the last update. */
+    private final Map<Vector3i, Set<Integer>> changedBlocks = new HashMap<>();
+    /** The chunks each client character was informed about. */
+    private final Map<EntityRef, Set<Vector3i>> subscriptions = new HashMap<>();
+    private float timeSinceUpdate;
+
+    private final Vector3i blockPosition = new Vector3i();
+    private final Vector3f characterPosition = new Vector3f();
+
+    /**
+     * Start tracking the damage level of a block, and stop replicating its health to clients.
+     * <p>
+     * This covers blocks whose health is loaded or defined by their prefab; blocks damaged for the first time get their
+     * health component from the {@link BlockDamageAuthoritySystem}, which already disables its replication. The flag
+     * is not persisted, so the component does not need to be saved.
+     */
+    @ReceiveEvent(components = BlockComponent.class)
+    public void onHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health) {
+        health.replicateToClients = false;
+        setDamageLevel(entity, ChunkDamageLevels.damageLevel(health.currentHealth, health.maxHealth));
+    }
+
+    @ReceiveEvent(components = BlockComponent.class)
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health) {
+        setDamageLevel(entity, ChunkDamageLevels.damageLevel(health.currentHealth, health.maxHealth));
+    }
+
+    /**
+     * Forget the damage level of a block when it is destroyed, repaired, or unloaded.
+     */
+    @ReceiveEvent(components = {BlockComponent.class, HealthComponent.class})
+    public void onHealthDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        setDamageLevel(entity, 0);
+    }
+
+    private void setDamageLevel(EntityRef entity, int level) {
+        entity.getComponent(BlockComponent.class).getPosition(blockPosition);
+        Vector3i chunkPosition = Chunks.toChunkPos(blockPosition, new Vector3i());
+        ChunkDamageLevels chunk = damagedChunks.get(chunkPosition);
+        if (chunk == null) {
+            if (level == 0) {
+                return;
+            }
+            chunk = new ChunkDamageLevels();
+            damagedChunks.put(chunkPosition, chunk);
+        }
+        int localIndex = ChunkDamageLevels.localIndex(blockPosition);
+        int previousSize = chunk.size();
+        if (chunk.set(localIndex, level)) {
+            ranking.update(chunkPosition, previousSize, chunk.size());
+            changedBlocks.computeIfAbsent(chunkPosition, key -> new LinkedHashSet<>()).add(localIndex);
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        timeSinceUpdate += delta;
+        if (timeSinceUpdate * 1000 < config.observedHealthUpdateIntervalMs.get()) {
+            return;
+        }
+        timeSinceUpdate = 0;
+
+        long start = System.nanoTime();
+        Set<EntityRef> characters = new HashSet<>();
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            EntityRef character = client.getComponent(ClientComponent.class).character;
+            LocationComponent location = character.getComponent(LocationComponent.class);
+            if (location != null) {
+                characters.add(character);
+                updateClient(character, location.getWorldPosition(characterPosition));
+            }
+        }
+        subscriptions.keySet().retainAll(characters);
+
+        changedBlocks.clear();
+        damagedChunks.values().removeIf(ChunkDamageLevels::isEmpty);
+
+        metrics.setGauge(HealthMetrics.Gauge.DAMAGED_BLOCKS, ranking.getDamagedBlocks());
+        metrics.record(HealthMetrics.Phase.BLOCK_DAMAGE_STREAM, start);
+    }
+
+    /**
+     * The chunks with the most damaged blocks.
+     *
+     * @param limit the maximum number of chunks to return
+     * @return the number of damaged blocks by chunk position, in descending order
+     */
+    public Map<Vector3ic, Integer> getMostDamagedChunks(int limit) {
+        return ranking.top(limit);
+    }
+
+    /**
+     * The number of chunks with damaged blocks.
+     */
+    public int getDamagedChunkCount() {
+        return damagedChunks.size();
+    }
+
+    private void updateClient(EntityRef character, Vector3f position) {
+        Set<Vector3i> subscribed = subscriptions.get(character);
+        if (subscribed == null) {
+            // the client may still know chunks of a previous subscription, e.g., of its previous character
+            subscribed = new HashSet<>();
+            subscriptions.put(character, subscribed);
+            character.send(BlockDamageLevelsEvent.reset());
+        }
+        List<Vector3i> entered = new ArrayList<>();
+        List<Vector3i> left = new ArrayList<>();
+        updateSubscriptions(subscribed, damagedChunks, position, config.damagedBlockStreamRadius.get(), entered, left);
+
+        for (Vector3i chunkPosition : left) {
+            character.send(new BlockDamageLevelsEvent(chunkPosition, true, NO_ENTRIES));
+        }
+        Iterator<Vector3i> iterator = subscribed.iterator();
+        while (iterator.hasNext()) {
+            Vector3i chunkPosition = iterator.next();
+            if (changedBlocks.containsKey(chunkPosition) && !entered.contains(chunkPosition)) {
+                ChunkDamageLevels chunk = damagedChunks.get(chunkPosition);
+                character.send(new BlockDamageLevelsEvent(chunkPosition, false,
+                        chunk.pack(changedBlocks.get(chunkPosition))));
+                if (chunk.isEmpty()) {
+                    // the client removes empty chunks on its own
+                    iterator.remove();
+                }
+            }
+        }
+        for (Vector3i chunkPosition : entered) {
+            character.send(new BlockDamageLevelsEvent(chunkPosition, true, damagedChunks.get(chunkPosition).pack()));
+        }
+    }
+
+    /**
+     * Update the chunks a client is subscribed to for its current position.
+     * <p>
+     * Subscribed chunks out of range are unsubscribed, and damaged chunks in range are subscribed. Chunks without any
+     * damaged blocks are never subscribed.
+     *
+     * @param subscribed the chunks the client is subscribed to, updated in place
+     * @param damagedChunks the damage levels by chunk position
+     * @param position the position of the client's character
+     * @param radius the streaming radius around the position
+     * @param entered receives the newly subscribed chunks
+     * @param left receives the unsubscribed chunks
+     */
+    static void updateSubscriptions(Set<Vector3i> subscribed, Map<Vector3i, ChunkDamageLevels> damagedChunks,
+                                    Vector3f position, float radius, List<Vector3i> entered, List<Vector3i> left) {
+        Iterator<Vector3i> iterator = subscribed.iterator();
+        while (iterator.hasNext()) {
+            Vector3i chunkPosition = iterator.next();
+            if (!isInRange(chunkPosition, position, radius)) {
+                left.add(chunkPosition);
+                iterator.remove();
+            }
+        }
+        for (Map.Entry<Vector3i, ChunkDamageLevels> entry : damagedChunks.entrySet()) {
+            Vector3i chunkPosition = entry.getKey();
+            if (!entry.getValue().isEmpty() && !subscribed.contains(chunkPosition)
+                    && isInRange(chunkPosition, position, radius)) {
+                entered.add(chunkPosition);
+                subscribed.add(chunkPosition);
+            }
+        }
+    }
+
+    /**
+     * Whether any part of the chunk is within the given radius around the position.
+     */
+    static boolean isInRange(Vector3i chunkPosition, Vector3f position, float radius) {
+        float minX = chunkPosition.x * Chunks.SIZE_X - 0.5f;
+        float minY = chunkPosition.y * Chunks.SIZE_Y - 0.5f;
+        float minZ = chunkPosition.z * Chunks.SIZE_Z - 0.5f;
+        float dx = Math.max(0f, Math.max(minX - position.x, position.x - (minX + Chunks.SIZE_X)));
+        float dy = Math.max(0f, Math.max(minY - position.y, position.y - (minY + Chunks.SIZE_Y)));
+        float dz = Math.max(0f, Math.max(minZ - position.z, position.z - (minZ + Chunks.SIZE_Z)));
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+}
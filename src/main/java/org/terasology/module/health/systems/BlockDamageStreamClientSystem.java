@@ -0,0 +1,53 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.events.BlockDamageLevelsEvent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the damage levels of damaged blocks around the local player as streamed by the
+ * {@link BlockDamageStreamAuthoritySystem}.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+@Share(BlockDamageStreamClientSystem.class)
+public class BlockDamageStreamClientSystem extends BaseComponentSystem {
+
+    private final Map<Vector3i, ChunkDamageLevels> damagedChunks = new HashMap<>();
+
+    @ReceiveEvent
+    public void onBlockDamageLevels(BlockDamageLevelsEvent event, EntityRef character) {
+        if (event.isReset()) {
+            damagedChunks.clear();
+            return;
+        }
+        Vector3i chunkPosition = new Vector3i(event.getChunkPosition());
+        ChunkDamageLevels chunk = damagedChunks.get(chunkPosition);
+        if (chunk == null || event.isSnapshot()) {
+            chunk = new ChunkDamageLevels();
+        }
+        chunk.apply(event.getEntries());
+        if (chunk.isEmpty()) {
+            damagedChunks.remove(chunkPosition);
+        } else {
+            damagedChunks.put(chunkPosition, chunk);
+        }
+    }
+
+    /**
+     * The chunks with damaged blocks known to this client, by chunk position.
+     */
+    Map<Vector3i, ChunkDamageLevels> getDamagedChunks() {
+        return Collections.unmodifiableMap(damagedChunks);
+    }
+}
@@ -0,0 +1,77 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3fc;
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.particles.components.ParticleDataSpriteComponent;
+import org.terasology.engine.particles.components.generators.TextureOffsetGeneratorComponent;
+import org.terasology.engine.rendering.assets.texture.Texture;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.family.BlockFamily;
+import org.terasology.engine.world.block.tiles.WorldAtlas;
+
+import java.util.Optional;
+
+/**
+ * Builds particle effect entities for damaged blocks, textured with the block's texture.
+ * <p>
+ * Used by the authority to create replicated effects, and by clients to create effects locally.
+ */
+class BlockParticleEffects {
+
+    /** The size of block particles relative to the block texture size. */
+    private static final float PARTICLE_SCALE = 0.25f;
+
+    private final EntityManager entityManager;
+    private final WorldAtlas worldAtlas;
+    private final HealthAssetCache assets;
+    private final BlockParticleOffsets particleOffsets;
+
+    BlockParticleEffects(EntityManager entityManager, WorldAtlas worldAtlas, HealthAssetCache assets) {
+        this.entityManager = entityManager;
+        this.worldAtlas = worldAtlas;
+        this.assets = assets;
+        this.particleOffsets = new BlockParticleOffsets(worldAtlas, PARTICLE_SCALE, new FastRandom());
+    }
+
+    /**
+     * Prepares a new entity for the block damage particle effect.
+     * <p>
+     * If the terrain texture of the damaged block is available, the particles will have the block texture. Otherwise,
+     * the default sprite (smoke) is used.
+     *
+     * @param family the {@link BlockFamily} of the damaged block
+     * @param location the location of the damaged block
+     * @return the builder for the effect entity, or empty if the particle prefab is not available
+     */
+    Optional<EntityBuilder> newEffect(BlockFamily family, Vector3fc location) {
+        Optional<Prefab> particlesPrefab = assets.getBlockParticlesPrefab();
+        if (!particlesPrefab.isPresent()) {
+            return Optional.empty();
+        }
+        EntityBuilder builder = entityManager.newBuilder(particlesPrefab.get());
+        builder.getComponent(LocationComponent.class).setWorldPosition(location);
+
+        Optional<Texture> terrainTexture = assets.getTerrainTexture();
+        if (terrainTexture.isPresent() && terrainTexture.get().isLoaded()) {
+            final BlockAppearance blockAppearance = family.getArchetypeBlock().getPrimaryAppearance();
+
+            final float spriteSize = worldAtlas.getRelativeTileSize() * particleOffsets.getScale();
+
+            ParticleDataSpriteComponent spriteComponent = builder.getComponent(ParticleDataSpriteComponent.class);
+            spriteComponent.texture = terrainTexture.get();
+            spriteComponent.textureSize.set(spriteSize, spriteSize);
+
+            TextureOffsetGeneratorComponent textureOffsetGeneratorComponent = builder.getComponent(TextureOffsetGeneratorComponent.class);
+            textureOffsetGeneratorComponent.validOffsets.addAll(particleOffsets.get(blockAppearance));
+        }
+
+        return Optional.of(builder);
+    }
+}
@@ -0,0 +1,82 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.terasology.engine.utilities.random.Random;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockPart;
+import org.terasology.engine.world.block.tiles.WorldAtlas;
+import org.terasology.math.TeraMath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pools of random texture offsets into the terrain atlas for block particles of a fixed scale.
+ * <p>
+ * A pool is computed once per {@link BlockAppearance} and shared by all particle effects for blocks with that
+ * appearance. The texture offset generator of the particle system picks a random offset from the pool for each
+ * particle, so effects do not need offsets of their own.
+ */
+class BlockParticleOffsets {
+    /** The number of random offsets sampled from the texture of each block part. */
+    static final int OFFSETS_PER_PART = 8;
+
+    private final WorldAtlas worldAtlas;
+    private final float scale;
+    private final Random random;
+
+    private final Map<BlockAppearance, List<Vector2f>> pools = new HashMap<>();
+
+    /**
+     * @param worldAtlas the atlas the block textures are located in
+     * @param scale the scale of the texture area (should be in 0 < scale <= 1.0)
+     * @param random the random number generator used to sample the offsets
+     */
+    BlockParticleOffsets(WorldAtlas worldAtlas, float scale, Random random) {
+        this.worldAtlas = worldAtlas;
+        this.scale = scale;
+        this.random = random;
+    }
+
+    float getScale() {
+        return scale;
+    }
+
+    /**
+     * The (unmodifiable) pool of random offsets for the given block appearance.
+     */
+    List<Vector2f> get(BlockAppearance blockAppearance) {
+        return pools.computeIfAbsent(blockAppearance, this::computeOffsets);
+    }
+
+    /**
+     * Computes {@link #OFFSETS_PER_PART} random offset values for each block part texture.
+     *
+     * @param blockAppearance the block appearance information to generate offsets from
+     * @return a list of random offsets sampled from all block parts
+     */
+    List<Vector2f> computeOffsets(BlockAppearance blockAppearance) {
+        final float relativeTileSize = worldAtlas.getRelativeTileSize();
+        final int absoluteTileSize = worldAtlas.getTileSize();
+        final float pixelSize = relativeTileSize / absoluteTileSize;
+        final int spriteWidth = TeraMath.ceilToInt(scale * absoluteTileSize);
+
+        List<Vector2f> offsets = new ArrayList<>(BlockPart.allParts().size() * OFFSETS_PER_PART);
+        for (BlockPart part : BlockPart.allParts()) {
+            Vector2fc baseOffset = blockAppearance.getTextureAtlasPos(part);
+            for (int i = 0; i < OFFSETS_PER_PART; i++) {
+                offsets.add(new Vector2f(baseOffset)
+                        .add(random.nextInt(absoluteTileSize - spriteWidth) * pixelSize,
+                                random.nextInt(absoluteTileSize - spriteWidth) * pixelSize));
+            }
+        }
+        return Collections.unmodifiableList(offsets);
+    }
+}
@@ -0,0 +1,117 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.module.health.events.BlockDamageLevelsEvent;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The damage levels of the damaged blocks in a single chunk.
+ * <p>
+ * Blocks are identified by their index within the chunk, which fits into 16 bits. Damage levels range from 1 to
+ * {@link HealthAssetCache#DAMAGE_EFFECT_LEVELS}; a level of 0 means the block is not damaged and is not stored.
+ * This is the state exchanged by the {@link BlockDamageLevelsEvent} in the packed format described there.
+ */
+final class ChunkDamageLevels {
+
+    private final Map<Integer, Integer> levels = new HashMap<>();
+
+    /**
+     * Set the damage level of a block, removing the block if the level is 0.
+     *
+     * @return whether the level of the block changed
+     */
+    boolean set(int localIndex, int level) {
+        Integer previous = level > 0 ? levels.put(localIndex, level) : levels.remove(localIndex);
+        return previous == null ? level > 0 : previous != level;
+    }
+
+    int get(int localIndex) {
+        return levels.getOrDefault(localIndex, 0);
+    }
+
+    boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    /**
+     * The number of damaged blocks in this chunk.
+     */
+    int size() {
+        return levels.size();
+    }
+
+    Map<Integer, Integer> asMap() {
+        return levels;
+    }
+
+    /**
+     * Pack the current levels of all blocks in this chunk.
+     */
+    byte[] pack() {
+        return pack(levels.keySet());
+    }
+
+    /**
+     * Pack the current levels of the given blocks, including blocks which are not damaged (anymore).
+     */
+    byte[] pack(Collection<Integer> localIndices) {
+        byte[] entries = new byte[localIndices.size() * BlockDamageLevelsEvent.ENTRY_SIZE];
+        int offset = 0;
+        for (int localIndex : localIndices) {
+            entries[offset] = (byte) (localIndex >>> 8);
+            entries[offset + 1] = (byte) localIndex;
+            entries[offset + 2] = (byte) get(localIndex);
+            offset += BlockDamageLevelsEvent.ENTRY_SIZE;
+        }
+        return entries;
+    }
+
+    /**
+     * Apply packed entries to this chunk.
+     */
+    void apply(byte[] entries) {
+        for (int offset = 0; offset + BlockDamageLevelsEvent.ENTRY_SIZE <= entries.length;
+             offset += BlockDamageLevelsEvent.ENTRY_SIZE) {
+            int localIndex = (entries[offset] & 0xFF) << 8 | (entries[offset + 1] & 0xFF);
+            set(localIndex, entries[offset + 2] & 0x0F);
+        }
+    }
+
+    /**
+     * The index of a block within its chunk.
+     */
+    static int localIndex(Vector3ic blockPosition) {
+        int x = Math.floorMod(blockPosition.x(), Chunks.SIZE_X);
+        int y = Math.floorMod(blockPosition.y(), Chunks.SIZE_Y);
+        int z = Math.floorMod(blockPosition.z(), Chunks.SIZE_Z);
+        return x + Chunks.SIZE_X * (z + Chunks.SIZE_Z * y);
+    }
+
+    /**
+     * The world position of the block with the given index in the given chunk.
+     */
+    static Vector3i blockPosition(Vector3ic chunkPosition, int localIndex, Vector3i dest) {
+        int x = localIndex % Chunks.SIZE_X;
+        int z = (localIndex / Chunks.SIZE_X) % Chunks.SIZE_Z;
+        int y = localIndex / (Chunks.SIZE_X * Chunks.SIZE_Z);
+        return dest.set(chunkPosition.x() * Chunks.SIZE_X + x,
+                chunkPosition.y() * Chunks.SIZE_Y + y,
+                chunkPosition.z() * Chunks.SIZE_Z + z);
+    }
+
+    /**
+     * Compute the damage level as linear mapping from damage percentage to the range
+     * [0..{@link HealthAssetCache#DAMAGE_EFFECT_LEVELS}].
+     */
+    static int damageLevel(int currentHealth, int maxHealth) {
+        float damagePercentage = 1f - Math.max(0f, Math.min(1f, (float) currentHealth / maxHealth));
+        return Math.round(damagePercentage * HealthAssetCache.DAMAGE_EFFECT_LEVELS);
+    }
+}
@@ -26,6 +26,7 @@ import org.terasology.engine.logic.inventory.ItemComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.utilities.random.FastRandom;
 import org.terasology.engine.utilities.random.Random;
+import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.math.TeraMath;
 import org.terasology.module.health.components.DamageResistComponent;
@@ -35,6 +36,8 @@ import org.terasology.module.health.events.BeforeDamagedEvent;
 import org.terasology.module.health.events.DoDamageEvent;
 import org.terasology.module.health.events.DoRestoreEvent;
 import org.terasology.module.health.events.OnDamagedEvent;
+import org.terasology.module.health.metrics.HealthMetrics;
+import org.terasology.module.health.trace.DamageTrace;
 
 /**
  * This system reacts to OnDamageEvent events and lowers health on the HealthComponent, and handles
@@ -55,8 +58,22 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
     @In
     private Time time;
 
-    private Random random = new FastRandom();
+    @In
+    private BlockDamageProfiles blockDamageProfiles;
+
+    @In
+    private DamageFeedbackObservers observers;
+
+    @In
+    private DamageSoundBudget soundBudget;
+
+    @In
+    private HealthMetrics metrics;
+
+    @In
+    private DamageTrace damageTrace;
 
+    private Random random = new FastRandom();
 
     /**
      * Override the default behavior for an attack, causing it damage as opposed to just destroying it or doing
@@ -88,9 +105,13 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
         event.consume();
     }
 
-    private void doDamage(EntityRef entity, int damageAmount, Prefab damageType, EntityRef instigator,
-                          EntityRef directCause) {
-        HealthComponent health = entity.getComponent(HealthComponent.class);
+    /**
+     * Apply the damage to the health of the entity, unless it is ghosting.
+     *
+     * @return the damage actually applied, capped at the current health of the entity
+     */
+    private int doDamage(EntityRef entity, HealthComponent health, int damageAmount, Prefab damageType,
+                         EntityRef instigator) {
         CharacterMovementComponent characterMovementComponent = entity.getComponent(CharacterMovementComponent.class);
         boolean ghost = false;
         if (characterMovementComponent != null) {
@@ -103,11 +124,10 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
                 entity.saveComponent(health);
 
                 entity.send(new OnDamagedEvent(cappedDamage, damageType, instigator));
-                if (health.currentHealth == 0 && health.destroyEntityOnNoHealth) {
-                    entity.send(new DestroyEvent(instigator, directCause, damageType));
-                }
+                return cappedDamage;
             }
         }
+        return 0;
     }
 
     /**
@@ -118,7 +138,9 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
      */
     @ReceiveEvent
     public void onDamage(DoDamageEvent event, EntityRef entity) {
+        long start = System.nanoTime();
         checkDamage(entity, event.getAmount(), event.getDamageType(), event.getInstigator(), event.getDirectCause());
+        metrics.record(HealthMetrics.Phase.DAMAGE, start);
     }
 
     private void checkDamage(EntityRef entity, int amount, Prefab damageType, EntityRef instigator,
@@ -129,13 +151,25 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
         }
         BeforeDamagedEvent beforeDamage = entity.send(new BeforeDamagedEvent(amount, damageType, instigator,
                 directCause));
-        if (!beforeDamage.isConsumed()) {
-            int damageAmount = TeraMath.floorToInt(beforeDamage.getResultValueWithoutCapping());
-            if (damageAmount > 0) {
-                doDamage(entity, damageAmount, damageType, instigator, directCause);
-            } else {
-                entity.send(new DoRestoreEvent(-damageAmount, instigator));
-            }
+        long entityId = entity.getId();
+        HealthComponent health = entity.getComponent(HealthComponent.class);
+        int damageAmount = TeraMath.floorToInt(beforeDamage.getResultValueWithoutCapping());
+        int appliedDamage = 0;
+        if (!beforeDamage.isConsumed() && damageAmount > 0) {
+            appliedDamage = doDamage(entity, health, damageAmount, damageType, instigator);
+        }
+        // record before the follow-up events, as a fatal hit destroys the entity
+        if (damageTrace.isTraced(entityId)) {
+            damageTrace.record(entityId, DamageTrace.DAMAGE, beforeDamage, appliedDamage, health, damageType,
+                    instigator);
+        }
+        if (beforeDamage.isConsumed()) {
+            return;
+        }
+        if (damageAmount <= 0) {
+            entity.send(new DoRestoreEvent(-damageAmount, instigator));
+        } else if (appliedDamage > 0 && health.currentHealth == 0 && health.destroyEntityOnNoHealth) {
+            entity.send(new DestroyEvent(instigator, directCause, damageType));
         }
     }
 
@@ -167,6 +201,8 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
 
     /**
      * Play a damage sound for the {@code entity} being hit for everyone.
+     * <p>
+     * The sound is skipped if no player is close enough to hear it, and is subject to the {@link DamageSoundBudget}.
      *
      * @param event the notification event about the damage
      * @param entity the entity which has taken damage
@@ -175,9 +211,35 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
     @ReceiveEvent
     public void playSoundOnDamaged(OnDamagedEvent event, EntityRef entity,
                                    DamageSoundComponent damageSounds) {
+        if (!observers.isObserved(entity)) {
+            return;
+        }
         StaticSound sound = random.nextItem(damageSounds.sounds);
         if (sound != null) {
-            entity.send(new PlaySoundEvent(sound, 1.0f));
+            soundBudget.play(entity, sound);
+        }
+    }
+
+    /**
+     * Play the dig sound of the damaged block's family for everyone.
+     * <p>
+     * Blocks do not carry their sounds in a {@link DamageSoundComponent} but share the immutable list of sounds of
+     * their {@link BlockDamageProfile}. Block entities which have a {@link DamageSoundComponent} are handled by
+     * {@link #playSoundOnDamaged(OnDamagedEvent, EntityRef, DamageSoundComponent)} instead. The sound is skipped if no
+     * player is close enough to hear it, and is subject to the {@link DamageSoundBudget}.
+     *
+     * @param event the notification event about the damage
+     * @param entity the block entity which has taken damage
+     * @param blockComponent the block component of the damaged block
+     */
+    @ReceiveEvent
+    public void playSoundOnBlockDamaged(OnDamagedEvent event, EntityRef entity, BlockComponent blockComponent) {
+        if (entity.hasComponent(DamageSoundComponent.class) || !observers.isObserved(blockComponent.getPosition())) {
+            return;
+        }
+        StaticSound sound = random.nextItem(blockDamageProfiles.get(blockComponent.getBlock()).getDamageSounds());
+        if (sound != null) {
+            soundBudget.play(entity, blockComponent.getPosition(), sound);
         }
     }
 
@@ -3,56 +3,83 @@
 
 package org.terasology.module.health.systems;
 
-import org.joml.Vector2f;
-import org.joml.Vector2fc;
+import org.joml.RoundingMode;
 import org.joml.Vector3f;
-import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityBuilder;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.logic.location.LocationComponent;
-import org.terasology.engine.particles.components.ParticleDataSpriteComponent;
-import org.terasology.engine.particles.components.generators.TextureOffsetGeneratorComponent;
+import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
-import org.terasology.engine.rendering.assets.texture.Texture;
-import org.terasology.engine.utilities.Assets;
-import org.terasology.engine.utilities.random.FastRandom;
-import org.terasology.engine.utilities.random.Random;
-import org.terasology.engine.world.block.BlockAppearance;
 import org.terasology.engine.world.block.BlockComponent;
-import org.terasology.engine.world.block.BlockPart;
 import org.terasology.engine.world.block.entity.damage.BlockDamageModifierComponent;
 import org.terasology.engine.world.block.family.BlockFamily;
 import org.terasology.engine.world.block.regions.ActAsBlockComponent;
 import org.terasology.engine.world.block.tiles.WorldAtlas;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
-import org.terasology.math.TeraMath;
+import org.terasology.module.health.HealthConfig;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.events.BlockDamageEffectEvent;
 import org.terasology.module.health.events.OnDamagedEvent;
+import org.terasology.module.health.metrics.HealthMetrics;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.Map;
 
 /**
  * A server-side system to create particle effect entities for damage effects.
  * <p>
  * Particle emitter entities can be created server-side and replicated to clients by having the
  * {@link org.terasology.engine.network.NetworkComponent NetworkComponent}. The actual rendering of particles happens on client-side.
+ * <p>
+ * To bound the number of particle entities, effects are coalesced per block and created in batches once per tick,
+ * limited by a per-tick budget.
+ * <p>
+ * If {@link HealthConfig#clientSideDamageParticles client-side damage particles} are enabled, no particle entities are
+ * created on the authority. Instead, nearby clients receive a {@link BlockDamageEffectEvent} and create the particle
+ * effect locally (see {@link DamageEffectClientSystem}).
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
-public class DamageEffectAuthoritySystem extends BaseComponentSystem {
+public class DamageEffectAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
     @In
     private EntityManager entityManager;
     @In
     private WorldAtlas worldAtlas;
+    @In
+    private HealthAssetCache assets;
 
-    private Random random = new FastRandom();
+    @In
+    private Time time;
+    @In
+    private HealthConfig config;
+    @In
+    private DamageFeedbackObservers observers;
+    @In
+    private HealthMetrics metrics;
+
+    private BlockParticleEffects particleEffects;
+    private final Vector3f characterPosition = new Vector3f();
+
+    /** Effects requested since the last update, by block position. */
+    private final Map<Vector3i, PendingEffect> pendingEffects = new LinkedHashMap<>();
+    /** Game time in ms at which the last effect was created, by block position. */
+    private final Map<Vector3i, Long> recentEffects = new HashMap<>();
+
+    @Override
+    public void initialise() {
+        particleEffects = new BlockParticleEffects(entityManager, worldAtlas, assets);
+    }
 
     /**
      * Show a particle effect for the damaged block based on the block's texture.
@@ -65,7 +92,8 @@ public class DamageEffectAuthoritySystem extends BaseComponentSystem {
     public void onDamaged(OnDamagedEvent event, EntityRef blockEntity, BlockComponent blockComponent) {
         //TODO: the BlockDamageModifierComponent also holds a modifier for `impulsePower` - should that influence the particle effect?
         if (isEffectsEnabled(event)) {
-            createBlockParticleEffect(blockComponent.getBlock().getBlockFamily(), new Vector3f(blockComponent.getPosition()));
+            requestBlockParticleEffect(blockComponent.getBlock().getBlockFamily(), new Vector3f(blockComponent.getPosition()),
+                    intensity(event, blockEntity));
         }
     }
 
@@ -81,7 +109,7 @@ public class DamageEffectAuthoritySystem extends BaseComponentSystem {
     public void onDamaged(OnDamagedEvent event, EntityRef entity, ActAsBlockComponent blockComponent, LocationComponent location) {
         if (blockComponent.block != null && isEffectsEnabled(event)) {
             //TODO: the BlockDamageModifierComponent also holds a modifier for `impulsePower` - should that influence the particle effect?
-            createBlockParticleEffect(blockComponent.block, location.getWorldPosition(new Vector3f()));
+            requestBlockParticleEffect(blockComponent.block, location.getWorldPosition(new Vector3f()), intensity(event, entity));
         }
     }
 
@@ -103,64 +131,133 @@ public class DamageEffectAuthoritySystem extends BaseComponentSystem {
     }
 
     /**
-     * Computes n random offset values for each block part texture.
-     *
-     * @param blockAppearance the block appearance information to generate offsets from
-     * @param scale the scale of the texture area (should be in 0 < scale <= 1.0)
+     * Queue a particle effect for the damaged block to be created with the next update.
+     * <p>
+     * Requests for blocks no player is close to are dropped. Requests for a block which had an effect created within the
+     * {@link HealthConfig#damageParticleCoalesceWindowMs coalesce window} are dropped, as the live effect already shows
+     * the damage. Multiple requests for the same block within one tick are merged into one.
      *
-     * @return a list of random offsets sampled from all block parts
+     * @param family the {@link BlockFamily} of the damaged block
+     * @param location the location of the damaged block
+     * @param intensity the damage dealt relative to the block's max health
      */
-    private List<Vector2f> computeOffsets(BlockAppearance blockAppearance, float scale) {
-        final float relativeTileSize = worldAtlas.getRelativeTileSize();
-        final int absoluteTileSize = worldAtlas.getTileSize();
-        final float pixelSize = relativeTileSize / absoluteTileSize;
-        final int spriteWidth = TeraMath.ceilToInt(scale * absoluteTileSize);
-
-        final Stream<Vector2fc> baseOffsets =
-                BlockPart.allParts().stream().map(blockAppearance::getTextureAtlasPos);
-
-        return baseOffsets.flatMap(baseOffset ->
-                IntStream.range(0, 8).boxed()
-                        .map(i ->
-                                new Vector2f(baseOffset)
-                                        .add(random.nextInt(absoluteTileSize - spriteWidth) * pixelSize,
-                                                random.nextInt(absoluteTileSize - spriteWidth) * pixelSize)
-                        )
-        ).collect(Collectors.toList());
+    private void requestBlockParticleEffect(BlockFamily family, Vector3f location, float intensity) {
+        if (!observers.isObserved(location)) {
+            return;
+        }
+        Vector3i blockPosition = new Vector3i(location, RoundingMode.HALF_UP);
+        if (!recentEffects.containsKey(blockPosition)) {
+            PendingEffect effect = pendingEffects.computeIfAbsent(blockPosition,
+                    position -> new PendingEffect(family, location, position));
+            effect.intensity = Math.min(1f, effect.intensity + intensity);
+        }
     }
 
     /**
-     * Creates a new entity for the block damage particle effect.
-     *
-     * If the terrain texture of the damaged block is available, the particles will have the block texture. Otherwise,
-     * the default sprite (smoke) is used.
-     *
-     * @param family the {@link BlockFamily} of the damaged block
-     * @param location the location of the damaged block
+     * The damage dealt relative to the entity's max health, or 1 if the entity has no health.
      */
-    private void createBlockParticleEffect(BlockFamily family, Vector3fc location) {
-        EntityBuilder builder = entityManager.newBuilder("CoreAssets:defaultBlockParticles");
-        builder.getComponent(LocationComponent.class).setWorldPosition(location);
+    private static float intensity(OnDamagedEvent event, EntityRef entity) {
+        HealthComponent health = entity.getComponent(HealthComponent.class);
+        if (health == null || health.maxHealth <= 0) {
+            return 1f;
+        }
+        return Math.min(1f, (float) event.getDamageAmount() / health.maxHealth);
+    }
 
-        Optional<Texture> terrainTexture = Assets.getTexture("engine:terrain");
-        if (terrainTexture.isPresent() && terrainTexture.get().isLoaded()) {
-            final BlockAppearance blockAppearance = family.getArchetypeBlock().getPrimaryAppearance();
+    /**
+     * Create the particle effects queued during the last tick, and forget about effects that are older than the
+     * coalesce window.
+     * <p>
+     * At most {@link HealthConfig#damageParticleBudgetPerTick} effects are created per tick. If more effects were
+     * requested, the ones farthest away from any player are dropped.
+     */
+    @Override
+    public void update(float delta) {
+        long currentTime = time.getGameTimeInMs();
+        long coalesceWindow = config.damageParticleCoalesceWindowMs.get();
+        recentEffects.values().removeIf(effectTime -> effectTime + coalesceWindow <= currentTime);
 
-            final float relativeTileSize = worldAtlas.getRelativeTileSize();
-            final float particleScale = 0.25f;
+        if (pendingEffects.isEmpty()) {
+            return;
+        }
+        List<PendingEffect> effects = new ArrayList<>(pendingEffects.values());
+        pendingEffects.clear();
 
-            final float spriteSize = relativeTileSize * particleScale;
+        List<EntityRef> characters = clientCharacters();
+        int budget = config.damageParticleBudgetPerTick.get();
+        if (effects.size() > budget) {
+            sortByObserverDistance(effects, characters);
+        }
+        boolean clientSide = config.clientSideDamageParticles.get();
+        for (int i = 0; i < Math.min(budget, effects.size()); i++) {
+            PendingEffect effect = effects.get(i);
+            if (clientSide) {
+                broadcastBlockParticleEffect(effect, characters);
+            } else {
+                particleEffects.newEffect(effect.family, effect.location).ifPresent(EntityBuilder::build);
+            }
+            recentEffects.put(effect.blockPosition, currentTime);
+            metrics.count(HealthMetrics.Counter.PARTICLE_EFFECT);
+        }
+    }
 
-            ParticleDataSpriteComponent spriteComponent = builder.getComponent(ParticleDataSpriteComponent.class);
-            spriteComponent.texture = terrainTexture.get();
-            spriteComponent.textureSize.set(spriteSize, spriteSize);
+    /**
+     * Sort the effects by their distance to the closest player character, closest first.
+     */
+    private void sortByObserverDistance(List<PendingEffect> effects, List<EntityRef> characters) {
+        List<Vector3f> observers = new ArrayList<>();
+        for (EntityRef character : characters) {
+            LocationComponent location = character.getComponent(LocationComponent.class);
+            if (location != null) {
+                observers.add(location.getWorldPosition(new Vector3f()));
+            }
+        }
+        for (PendingEffect effect : effects) {
+            float distanceSquared = observers.isEmpty() ? 0 : Float.MAX_VALUE;
+            for (Vector3f observer : observers) {
+                distanceSquared = Math.min(distanceSquared, observer.distanceSquared(effect.location));
+            }
+            effect.distanceSquared = distanceSquared;
+        }
+        effects.sort(Comparator.comparingDouble(effect -> effect.distanceSquared));
+    }
 
-            final List<Vector2f> offsets = computeOffsets(blockAppearance, particleScale);
+    /**
+     * Broadcast the effect to all clients with a character near the damaged block.
+     */
+    private void broadcastBlockParticleEffect(PendingEffect effect, List<EntityRef> characters) {
+        float radius = config.damageEffectBroadcastRadius.get();
+        BlockDamageEffectEvent event = new BlockDamageEffectEvent(effect.location, effect.family, effect.intensity);
+        for (EntityRef character : characters) {
+            LocationComponent location = character.getComponent(LocationComponent.class);
+            if (location != null && location.getWorldPosition(characterPosition).distanceSquared(effect.location) <= radius * radius) {
+                character.send(event);
+            }
+        }
+    }
 
-            TextureOffsetGeneratorComponent textureOffsetGeneratorComponent = builder.getComponent(TextureOffsetGeneratorComponent.class);
-            textureOffsetGeneratorComponent.validOffsets.addAll(offsets);
+    /**
+     * The characters of all connected clients.
+     */
+    private List<EntityRef> clientCharacters() {
+        List<EntityRef> characters = new ArrayList<>();
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            characters.add(client.getComponent(ClientComponent.class).character);
         }
+        return characters;
+    }
 
-        builder.build();
+    private static final class PendingEffect {
+        final BlockFamily family;
+        final Vector3f location;
+        final Vector3i blockPosition;
+        float intensity;
+        float distanceSquared;
+
+        PendingEffect(BlockFamily family, Vector3f location, Vector3i blockPosition) {
+            this.family = family;
+            this.location = location;
+            this.blockPosition = blockPosition;
+        }
     }
 }
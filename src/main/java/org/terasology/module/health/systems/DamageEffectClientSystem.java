@@ -0,0 +1,70 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.network.NetworkComponent;
+import org.terasology.engine.particles.components.ParticleEmitterComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.world.block.tiles.WorldAtlas;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.events.BlockDamageEffectEvent;
+
+import java.util.Optional;
+
+/**
+ * A client-side system to create block damage particle effects locally.
+ * <p>
+ * The particle effect entities are not networked and only exist on this client. The authority triggers them by sending
+ * a {@link BlockDamageEffectEvent} if client-side damage particles are enabled.
+ *
+ * @see DamageEffectAuthoritySystem
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+public class DamageEffectClientSystem extends BaseComponentSystem {
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private WorldAtlas worldAtlas;
+    @In
+    private HealthAssetCache assets;
+
+    private BlockParticleEffects particleEffects;
+
+    @Override
+    public void initialise() {
+        particleEffects = new BlockParticleEffects(entityManager, worldAtlas, assets);
+    }
+
+    /**
+     * Create a local particle effect for a damaged block near this client's character.
+     * <p>
+     * The number of particles spawned by the effect is scaled by the intensity of the damage.
+     *
+     * @param event the notification to show the effect
+     * @param character the character of this client
+     */
+    @ReceiveEvent
+    public void onBlockDamageEffect(BlockDamageEffectEvent event, EntityRef character) {
+        if (event.getBlockFamily() == null) {
+            return;
+        }
+        Optional<EntityBuilder> effect = particleEffects.newEffect(event.getBlockFamily(), event.getPosition());
+        if (effect.isPresent()) {
+            EntityBuilder builder = effect.get();
+            builder.removeComponent(NetworkComponent.class);
+            ParticleEmitterComponent emitter = builder.getComponent(ParticleEmitterComponent.class);
+            if (emitter != null && emitter.particleSpawnsLeft > 0) {
+                emitter.particleSpawnsLeft = Math.max(1, Math.round(emitter.particleSpawnsLeft * (0.5f + event.getIntensity())));
+            }
+            builder.build();
+        }
+    }
+}
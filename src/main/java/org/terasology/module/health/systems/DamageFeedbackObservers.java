@@ -0,0 +1,120 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.module.health.HealthConfig;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps track of the chunks in which damage feedback (particles and sounds) can be seen or heard by any player.
+ * <p>
+ * The set of observed chunks is refreshed a few times per second from the positions of all client characters and the
+ * {@link HealthConfig#damageFeedbackRadius damage feedback radius}. Checking whether a position is observed is a single
+ * lookup in that set.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(DamageFeedbackObservers.class)
+public class DamageFeedbackObservers extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /** The time in seconds between two refreshes of the observed chunks. */
+    private static final float REFRESH_INTERVAL = 0.5f;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private HealthConfig config;
+
+    /** The observed chunks, or {@code null} if not computed yet. */
+    private Set<Vector3i> observedChunks;
+    private float timeSinceRefresh;
+
+    private final Vector3i blockPosition = new Vector3i();
+    private final Vector3i chunkPosition = new Vector3i();
+
+    @Override
+    public void update(float delta) {
+        timeSinceRefresh += delta;
+        if (observedChunks == null || timeSinceRefresh >= REFRESH_INTERVAL) {
+            refresh();
+            timeSinceRefresh = 0;
+        }
+    }
+
+    /**
+     * Whether damage feedback for the entity can be perceived by any player.
+     * <p>
+     * Entities without a location are always considered observed.
+     */
+    public boolean isObserved(EntityRef entity) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null) {
+            return true;
+        }
+        return isObserved(location.getWorldPosition(new Vector3f()));
+    }
+
+    /**
+     * Whether damage feedback at the given world position can be perceived by any player.
+     */
+    public boolean isObserved(Vector3fc position) {
+        return isObserved(blockPosition.set(Math.round(position.x()), Math.round(position.y()), Math.round(position.z())));
+    }
+
+    /**
+     * Whether damage feedback at the given block position can be perceived by any player.
+     */
+    public boolean isObserved(Vector3ic position) {
+        if (observedChunks == null) {
+            return true;
+        }
+        return observedChunks.contains(Chunks.toChunkPos(position, chunkPosition));
+    }
+
+    /**
+     * Mark all chunks within the damage feedback radius around any client character as observed.
+     */
+    private void refresh() {
+        float radius = config.damageFeedbackRadius.get();
+        int radiusX = (int) Math.ceil(radius / Chunks.SIZE_X);
+        int radiusY = (int) Math.ceil(radius / Chunks.SIZE_Y);
+        int radiusZ = (int) Math.ceil(radius / Chunks.SIZE_Z);
+
+        Set<Vector3i> chunks = new HashSet<>();
+        Vector3f characterPosition = new Vector3f();
+        Vector3i characterChunk = new Vector3i();
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            LocationComponent location = client.getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+            if (location == null) {
+                continue;
+            }
+            location.getWorldPosition(characterPosition);
+            Chunks.toChunkPos(new Vector3i(Math.round(characterPosition.x), Math.round(characterPosition.y),
+                    Math.round(characterPosition.z)), characterChunk);
+            for (int x = -radiusX; x <= radiusX; x++) {
+                for (int y = -radiusY; y <= radiusY; y++) {
+                    for (int z = -radiusZ; z <= radiusZ; z++) {
+                        chunks.add(new Vector3i(characterChunk).add(x, y, z));
+                    }
+                }
+            }
+        }
+        observedChunks = chunks;
+    }
+}
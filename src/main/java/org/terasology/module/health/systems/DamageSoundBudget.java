@@ -0,0 +1,176 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.audio.StaticSound;
+import org.terasology.engine.audio.events.PlaySoundEvent;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.Priority;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.health.DestroyEvent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.HealthConfig;
+import org.terasology.module.health.metrics.HealthMetrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds the number of damage sounds sent to clients.
+ * <p>
+ * Damage sounds are not played immediately, but collected per spatial cell and played once per tick:
+ * <ul>
+ *     <li>an entity or a cell that played a sound within the {@link HealthConfig#damageSoundIntervalMs sound interval}
+ *     does not play another one</li>
+ *     <li>simultaneous hits in the same cell are merged into a single, louder sound</li>
+ *     <li>at most {@link HealthConfig#damageSoundBudgetPerTick} sounds are played per tick</li>
+ * </ul>
+ * If an entity with a pending sound is destroyed, its sound is played right away, as there is no entity to play it
+ * from afterwards.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(DamageSoundBudget.class)
+public class DamageSoundBudget extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /** The edge length in blocks of the cells in which simultaneous hits are merged. */
+    private static final int CELL_SIZE = 4;
+    /** The volume increase for each additional hit merged into a sound. */
+    private static final float MERGED_HIT_VOLUME = 0.25f;
+    private static final float MAX_VOLUME = 2.0f;
+
+    @In
+    private Time time;
+    @In
+    private HealthConfig config;
+    @In
+    private HealthMetrics metrics;
+
+    private final Map<Vector3i, PendingSound> pendingSounds = new LinkedHashMap<>();
+    private final Map<EntityRef, PendingSound> pendingSoundsByEntity = new HashMap<>();
+    private final Map<EntityRef, Long> entitySoundTimes = new HashMap<>();
+    private final Map<Vector3i, Long> cellSoundTimes = new HashMap<>();
+    private int soundsThisTick;
+
+    /**
+     * Request a damage sound to be played at the entity's location.
+     *
+     * @param entity the damaged entity
+     * @param sound the sound to play
+     */
+    public void play(EntityRef entity, StaticSound sound) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        Vector3f position = location != null ? location.getWorldPosition(new Vector3f()) : null;
+        if (position == null || !position.isFinite()) {
+            // the sound cannot be located, so there is no cell to merge it in
+            if (!isThrottled(entitySoundTimes.get(entity), time.getGameTimeInMs())) {
+                send(new PendingSound(null, entity, sound), time.getGameTimeInMs());
+            }
+            return;
+        }
+        request(entity, sound, new Vector3i(
+                Math.floorDiv(Math.round(position.x), CELL_SIZE),
+                Math.floorDiv(Math.round(position.y), CELL_SIZE),
+                Math.floorDiv(Math.round(position.z), CELL_SIZE)));
+    }
+
+    /**
+     * Request a damage sound to be played for a damaged block.
+     *
+     * @param blockEntity the entity of the damaged block
+     * @param blockPosition the position of the damaged block
+     * @param sound the sound to play
+     */
+    public void play(EntityRef blockEntity, Vector3ic blockPosition, StaticSound sound) {
+        request(blockEntity, sound, new Vector3i(
+                Math.floorDiv(blockPosition.x(), CELL_SIZE),
+                Math.floorDiv(blockPosition.y(), CELL_SIZE),
+                Math.floorDiv(blockPosition.z(), CELL_SIZE)));
+    }
+
+    private void request(EntityRef entity, StaticSound sound, Vector3i cell) {
+        long currentTime = time.getGameTimeInMs();
+        if (isThrottled(entitySoundTimes.get(entity), currentTime)) {
+            return;
+        }
+        PendingSound pending = pendingSounds.get(cell);
+        if (pending != null) {
+            pending.hits++;
+        } else if (!isThrottled(cellSoundTimes.get(cell), currentTime)) {
+            pending = new PendingSound(cell, entity, sound);
+            pendingSounds.put(cell, pending);
+            pendingSoundsByEntity.put(entity, pending);
+        }
+    }
+
+    /**
+     * Play the pending sound of an entity before it is destroyed.
+     */
+    @Priority(EventPriority.PRIORITY_HIGH)
+    @ReceiveEvent
+    public void onDestroy(DestroyEvent event, EntityRef entity) {
+        PendingSound pending = pendingSoundsByEntity.remove(entity);
+        if (pending != null) {
+            pendingSounds.remove(pending.cell);
+            send(pending, time.getGameTimeInMs());
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        long currentTime = time.getGameTimeInMs();
+        for (PendingSound pending : pendingSounds.values()) {
+            send(pending, currentTime);
+        }
+        pendingSounds.clear();
+        pendingSoundsByEntity.clear();
+        soundsThisTick = 0;
+
+        long interval = config.damageSoundIntervalMs.get();
+        entitySoundTimes.values().removeIf(soundTime -> soundTime + interval <= currentTime);
+        cellSoundTimes.values().removeIf(soundTime -> soundTime + interval <= currentTime);
+    }
+
+    private void send(PendingSound pending, long currentTime) {
+        if (soundsThisTick >= config.damageSoundBudgetPerTick.get()) {
+            return;
+        }
+        float volume = Math.min(MAX_VOLUME, 1.0f + MERGED_HIT_VOLUME * (pending.hits - 1));
+        pending.entity.send(new PlaySoundEvent(pending.sound, volume));
+        soundsThisTick++;
+        metrics.count(HealthMetrics.Counter.DAMAGE_SOUND);
+
+        entitySoundTimes.put(pending.entity, currentTime);
+        if (pending.cell != null) {
+            cellSoundTimes.put(pending.cell, currentTime);
+        }
+    }
+
+    private boolean isThrottled(Long lastSoundTime, long currentTime) {
+        return lastSoundTime != null && lastSoundTime + config.damageSoundIntervalMs.get() > currentTime;
+    }
+
+    private static final class PendingSound {
+        final Vector3i cell;
+        final EntityRef entity;
+        final StaticSound sound;
+        int hits = 1;
+
+        PendingSound(Vector3i cell, EntityRef entity, StaticSound sound) {
+            this.cell = cell;
+            this.entity = entity;
+            this.sound = sound;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The chunks with damaged blocks, ranked by their number of damaged blocks.
+ * <p>
+ * The ranking is updated whenever the number of damaged blocks of a chunk changes, so that the most damaged chunks and
+ * the total number of damaged blocks are available without going through all chunks.
+ */
+final class DamagedChunkRanking {
+
+    /** The chunks by their number of damaged blocks, with the most damaged chunks first. */
+    private final TreeMap<Integer, Set<Vector3i>> chunksBySize = new TreeMap<>(Comparator.reverseOrder());
+    private long damagedBlocks;
+
+    /**
+     * Move a chunk to the rank of its new number of damaged blocks.
+     *
+     * @param chunkPosition the position of the chunk, which must not be modified afterwards
+     * @param previousSize the number of damaged blocks in the chunk before the change
+     * @param size the number of damaged blocks in the chunk after the change
+     */
+    void update(Vector3i chunkPosition, int previousSize, int size) {
+        if (previousSize == size) {
+            return;
+        }
+        if (previousSize > 0) {
+            Set<Vector3i> chunks = chunksBySize.get(previousSize);
+            chunks.remove(chunkPosition);
+            if (chunks.isEmpty()) {
+                chunksBySize.remove(previousSize);
+            }
+        }
+        if (size > 0) {
+            chunksBySize.computeIfAbsent(size, key -> new HashSet<>()).add(chunkPosition);
+        }
+        damagedBlocks += size - previousSize;
+    }
+
+    /**
+     * The chunks with the most damaged blocks.
+     *
+     * @param limit the maximum number of chunks to return
+     * @return the number of damaged blocks by chunk position, in descending order
+     */
+    Map<Vector3ic, Integer> top(int limit) {
+        Map<Vector3ic, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Set<Vector3i>> rank : chunksBySize.entrySet()) {
+            for (Vector3i chunkPosition : rank.getValue()) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.put(new Vector3i(chunkPosition), rank.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The number of damaged blocks in all chunks.
+     */
+    long getDamagedBlocks() {
+        return damagedBlocks;
+    }
+}
@@ -0,0 +1,127 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.rendering.assets.texture.Texture;
+import org.terasology.engine.rendering.assets.texture.TextureRegionAsset;
+import org.terasology.engine.utilities.Assets;
+import org.terasology.gestalt.assets.Asset;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds resolved handles to the assets used for visual and audible damage feedback.
+ * <p>
+ * All handles are resolved once when the system is initialised. Gestalt asset handles stay valid across asset reloads
+ * (the asset data is swapped in place), so the cache only has to resolve a handle again if the asset it points to was
+ * disposed, e.g., because the module environment changed. Assets which are missing, e.g., because they were not loaded
+ * yet, are looked up again at most once per {@link #MISSING_ASSET_RETRY_MS}. This keeps string building and asset
+ * manager lookups out of per-frame and per-hit code paths.
+ */
+@RegisterSystem
+@Share(HealthAssetCache.class)
+public class HealthAssetCache extends BaseComponentSystem {
+
+    /** The number of damage effect levels provided by the {@code CoreAssets:blockDamageEffects} atlas. */
+    public static final int DAMAGE_EFFECT_LEVELS = 10;
+
+    private static final String DAMAGE_EFFECTS_ATLAS = "CoreAssets:blockDamageEffects#";
+    private static final String TERRAIN_TEXTURE = "engine:terrain";
+    private static final String BLOCK_PARTICLES_PREFAB = "CoreAssets:defaultBlockParticles";
+
+    /** The minimum time in milliseconds between two lookups of a missing asset. */
+    private static final long MISSING_ASSET_RETRY_MS = 5000;
+    private static final int DAMAGE_EFFECTS = 0;
+    private static final int TERRAIN = 1;
+    private static final int BLOCK_PARTICLES = 2;
+
+    /** Damage effect texture regions indexed by effect level; index 0 (no damage) is always {@code null}. */
+    private final TextureRegionAsset[] damageEffects = new TextureRegionAsset[DAMAGE_EFFECT_LEVELS + 1];
+    private Texture terrainTexture;
+    private Prefab blockParticlesPrefab;
+    /** The earliest time, as of {@link System#nanoTime()}, to look up each missing asset again. */
+    private final long[] nextLookupNanos = new long[3];
+
+    @Override
+    public void initialise() {
+        long now = System.nanoTime();
+        Arrays.fill(nextLookupNanos, now + TimeUnit.MILLISECONDS.toNanos(MISSING_ASSET_RETRY_MS));
+        resolveDamageEffects();
+        terrainTexture = Assets.getTexture(TERRAIN_TEXTURE).orElse(null);
+        blockParticlesPrefab = Assets.getPrefab(BLOCK_PARTICLES_PREFAB).orElse(null);
+    }
+
+    /**
+     * The damage effect texture region for the given effect level.
+     *
+     * @param level the damage effect level in [1..{@link #DAMAGE_EFFECT_LEVELS}]
+     * @return the texture region for the level, or {@code null} if the level is out of range or the asset is missing
+     */
+    public TextureRegionAsset getDamageEffect(int level) {
+        if (level < 1 || level > DAMAGE_EFFECT_LEVELS) {
+            return null;
+        }
+        TextureRegionAsset region = damageEffects[level];
+        if (isStale(region, DAMAGE_EFFECTS)) {
+            resolveDamageEffects();
+            region = damageEffects[level];
+        }
+        return region;
+    }
+
+    /**
+     * The terrain texture atlas used to texture block particles.
+     * <p>
+     * The texture may not be loaded yet (or ever, e.g., on headless servers), so callers should check
+     * {@link Texture#isLoaded()} before using it.
+     */
+    public Optional<Texture> getTerrainTexture() {
+        if (isStale(terrainTexture, TERRAIN)) {
+            terrainTexture = Assets.getTexture(TERRAIN_TEXTURE).orElse(null);
+        }
+        return Optional.ofNullable(terrainTexture);
+    }
+
+    /**
+     * The prefab for block damage particle emitters.
+     */
+    public Optional<Prefab> getBlockParticlesPrefab() {
+        if (isStale(blockParticlesPrefab, BLOCK_PARTICLES)) {
+            blockParticlesPrefab = Assets.getPrefab(BLOCK_PARTICLES_PREFAB).orElse(null);
+        }
+        return Optional.ofNullable(blockParticlesPrefab);
+    }
+
+    private void resolveDamageEffects() {
+        for (int level = 1; level <= DAMAGE_EFFECT_LEVELS; level++) {
+            damageEffects[level] = Assets.getTextureRegion(DAMAGE_EFFECTS_ATLAS + level).orElse(null);
+        }
+    }
+
+    /**
+     * Whether a handle has to be resolved again, as it was disposed or is missing.
+     * <p>
+     * Missing assets are only considered stale once per {@link #MISSING_ASSET_RETRY_MS} to avoid asset lookups on every
+     * access.
+     *
+     * @param asset the resolved handle, may be {@code null}
+     * @param kind the index of the handle's lookup back-off
+     */
+    private boolean isStale(Asset<?> asset, int kind) {
+        if (asset != null) {
+            return asset.isDisposed();
+        }
+        long now = System.nanoTime();
+        if (now - nextLookupNanos[kind] < 0) {
+            return false;
+        }
+        nextLookupNanos[kind] = now + TimeUnit.MILLISECONDS.toNanos(MISSING_ASSET_RETRY_MS);
+        return true;
+    }
+}
@@ -4,10 +4,15 @@ package org.terasology.module.health.systems;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.logic.players.PlayerCharacterComponent;
@@ -16,30 +21,97 @@ import org.terasology.engine.registry.In;
 import org.terasology.engine.rendering.nui.NUIManager;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.core.BaseRegenComponent;
 import org.terasology.module.health.events.MaxHealthChangedEvent;
 import org.terasology.module.health.events.OnDamagedEvent;
 import org.terasology.module.health.ui.DirectionalDamageOverlay;
-import org.terasology.nui.widgets.UIIconBar;
+import org.terasology.module.health.ui.HealthHud;
 
+/**
+ * Client-side health feedback for the local player: the health HUD, including the predicted base regeneration, and the
+ * directional damage overlay.
+ */
 @RegisterSystem(RegisterMode.CLIENT)
-public class HealthClientSystem extends BaseComponentSystem {
+public class HealthClientSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
     private static final float DAMAGE_OVERLAY_DELAY_SECONDS = 0.5f;
+    private static final Vector3fc UP = Direction.UP.asVector3f();
 
     @In
     private NUIManager nuiManager;
     @In
     private LocalPlayer localPlayer;
+    @In
+    private Time time;
 
+    private HealthHud healthHud;
     private DirectionalDamageOverlay directionalDamageOverlay;
+    private final HealthPrediction prediction = new HealthPrediction();
+    /** The local player's character at the last update, to refresh the HUD when the character changes. */
+    private EntityRef lastCharacter = EntityRef.NULL;
+
+    // scratch vectors for determining the damage direction, reused to avoid allocations per hit
+    private final Vector3f position = new Vector3f();
+    private final Vector3f instigatorDirection = new Vector3f();
+    private final Vector3f facing = new Vector3f();
 
     @Override
     public void initialise() {
-        nuiManager.getHUD().addHUDElement("healthHud");
+        healthHud = (HealthHud) nuiManager.getHUD().addHUDElement("healthHud");
         directionalDamageOverlay = (DirectionalDamageOverlay) nuiManager.getHUD().addHUDElement(
                 "directionalDamageOverlay");
     }
 
+    @Override
+    public void update(float delta) {
+        EntityRef character = localPlayer.getCharacterEntity();
+        if (!character.equals(lastCharacter)) {
+            // the character's health may have been activated before the local player was assigned to it
+            lastCharacter = character;
+            HealthComponent health = character.getComponent(HealthComponent.class);
+            if (health != null) {
+                updateHud(character, health);
+            }
+        }
+        if (prediction.update(delta, character.getComponent(BaseRegenComponent.class), time.getGameTimeInMs())) {
+            healthHud.setHealth(prediction.getPredictedHealth(), prediction.getMaxHealth());
+        }
+    }
+
+    /**
+     * Push the health of the local player's character to the {@link HealthHud} whenever it is added or changed.
+     * <p>
+     * Component changes are used rather than health change events as they also cover regeneration and replicated
+     * updates which are not announced to the client by an event. The authoritative values are reconciled with the
+     * {@link HealthPrediction} which extrapolates base regeneration in between.
+     *
+     * @param event the component lifecycle event
+     * @param entity the entity whose health component was added or changed
+     * @param health the health component of the entity
+     */
+    @ReceiveEvent
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health) {
+        updateHud(entity, health);
+    }
+
+    /**
+     * Push the health of the local player's character to the {@link HealthHud} when its health component is added.
+     *
+     * @see #onHealthChanged(OnChangedComponent, EntityRef, HealthComponent)
+     */
+    @ReceiveEvent
+    public void onHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health) {
+        updateHud(entity, health);
+    }
+
+    private void updateHud(EntityRef entity, HealthComponent health) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            prediction.reconcile(health.currentHealth, health.maxHealth,
+                    entity.getComponent(BaseRegenComponent.class), time.getGameTimeInMs());
+            healthHud.setHealth(prediction.getPredictedHealth(), prediction.getMaxHealth());
+        }
+    }
+
     /**
      * Handle client-side effects that occur when the local player receives damages.
      *
@@ -54,6 +126,9 @@ public class HealthClientSystem extends BaseComponentSystem {
                           HealthComponent healthComponent) {
         // ensure to only show damage overlay if this client's player entity is damaged
         if (entity.equals(localPlayer.getCharacterEntity())) {
+            prediction.onDamaged(time.getGameTimeInMs());
+            healthHud.setHealth(prediction.getPredictedHealth(), prediction.getMaxHealth());
+
             EntityRef instigator = event.getInstigator();
             if (instigator != null && instigator.hasComponent(LocationComponent.class)) {
                 // Show the relevant direction element
@@ -61,9 +136,7 @@ public class HealthClientSystem extends BaseComponentSystem {
                 directionalDamageOverlay.show(direction, DAMAGE_OVERLAY_DELAY_SECONDS);
             } else {
                 // Show non-directional damage indication by making all four indicators visible
-                for (Direction direction : Direction.values()) {
-                    directionalDamageOverlay.show(direction, DAMAGE_OVERLAY_DELAY_SECONDS);
-                }
+                directionalDamageOverlay.showAll(DAMAGE_OVERLAY_DELAY_SECONDS);
             }
         }
     }
@@ -74,21 +147,20 @@ public class HealthClientSystem extends BaseComponentSystem {
      */
     @ReceiveEvent
     public void onMaxHealthChanged(MaxHealthChangedEvent event, EntityRef player) {
-        UIIconBar healthBar = nuiManager.getHUD().find("healthBar", UIIconBar.class);
-        healthBar.setMaxIcons(event.getNewValue() / 10);
+        healthHud.setMaxIcons(event.getNewValue() / 10);
     }
 
     @VisibleForTesting
     Direction determineDamageDirection(EntityRef instigator, LocationComponent locationComponent) {
         LocationComponent instigatorLocation = instigator.getComponent(LocationComponent.class);
-        Vector3f loc = locationComponent.getWorldPosition(new Vector3f());
-        Vector3f locDiff = instigatorLocation.getWorldPosition(new Vector3f()).sub(loc).normalize();
+        Vector3f loc = locationComponent.getWorldPosition(position);
+        Vector3f locDiff = instigatorLocation.getWorldPosition(instigatorDirection).sub(loc).normalize();
 
         // facing x and z are "how much" of that direction we are facing
         // e.g. (0.0, 1.0) means that going forward increases world z position without increasing x position
-        Vector3f worldFacing = locationComponent.getWorldDirection(new Vector3f()).normalize();
+        Vector3f worldFacing = locationComponent.getWorldDirection(facing).normalize();
 
-        double direction = Math.toDegrees(worldFacing.angleSigned(locDiff, Direction.UP.asVector3f()));
+        double direction = Math.toDegrees(worldFacing.angleSigned(locDiff, UP));
 
         if (direction <= 45.0 && direction > -45.0) {
             return Direction.FORWARD;
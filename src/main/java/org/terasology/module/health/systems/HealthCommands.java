@@ -31,7 +31,6 @@ import java.util.Optional;
 @Share(HealthCommands.class)
 public class HealthCommands extends BaseComponentSystem {
 
-
     @In
     private PrefabManager prefabManager;
 
@@ -213,5 +212,4 @@ public class HealthCommands extends BaseComponentSystem {
         }
         return "Normal collision damage values restored";
     }
-
 }
@@ -0,0 +1,81 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.terasology.module.health.core.BaseRegenComponent;
+
+/**
+ * Client-side prediction of the local character's health under base regeneration.
+ * <p>
+ * Between two authoritative updates the health is extrapolated from the replicated {@link BaseRegenComponent}, i.e.,
+ * from its regen rate once the cool down after the last hit has passed. Authoritative values that lag only slightly
+ * behind the prediction are absorbed to avoid the displayed health jumping back; any other deviation replaces the
+ * prediction.
+ * <p>
+ * Only base regeneration is predicted. Other regeneration actions are not known to the client and show up when the
+ * authoritative health arrives.
+ */
+class HealthPrediction {
+
+    /** How many seconds of regeneration the authoritative health may lag behind the prediction. */
+    private static final float MAX_LAG_SECONDS = 1.0f;
+
+    private float predictedHealth;
+    private int authoritativeHealth;
+    private int maxHealth;
+    private long lastHitTimeInMs = Long.MIN_VALUE;
+
+    /**
+     * Reconcile the prediction with an authoritative health update.
+     *
+     * @param currentHealth the authoritative current health
+     * @param newMaxHealth the authoritative maximum health
+     * @param baseRegen the base regeneration of the character, or {@code null} if it has none
+     * @param currentTimeInMs the current game time in milliseconds
+     */
+    void reconcile(int currentHealth, int newMaxHealth, BaseRegenComponent baseRegen, long currentTimeInMs) {
+        float maxLag = isRegenerating(baseRegen, currentTimeInMs) ? baseRegen.regenRate * MAX_LAG_SECONDS : 0;
+        if (currentHealth > predictedHealth || currentHealth < predictedHealth - maxLag - 1) {
+            predictedHealth = currentHealth;
+        }
+        authoritativeHealth = currentHealth;
+        maxHealth = newMaxHealth;
+        predictedHealth = Math.min(predictedHealth, maxHealth);
+    }
+
+    /**
+     * Notify the prediction about damage dealt to the character.
+     * <p>
+     * This restarts the base regen cool down and drops any regeneration predicted beyond the authoritative health.
+     */
+    void onDamaged(long currentTimeInMs) {
+        lastHitTimeInMs = currentTimeInMs;
+        predictedHealth = Math.min(predictedHealth, authoritativeHealth);
+    }
+
+    /**
+     * Extrapolate the predicted health by the given time delta.
+     *
+     * @return whether the predicted health changed
+     */
+    boolean update(float delta, BaseRegenComponent baseRegen, long currentTimeInMs) {
+        if (authoritativeHealth <= 0 || predictedHealth >= maxHealth || !isRegenerating(baseRegen, currentTimeInMs)) {
+            return false;
+        }
+        predictedHealth = Math.min(maxHealth, predictedHealth + baseRegen.regenRate * delta);
+        return true;
+    }
+
+    float getPredictedHealth() {
+        return predictedHealth;
+    }
+
+    int getMaxHealth() {
+        return maxHealth;
+    }
+
+    private boolean isRegenerating(BaseRegenComponent baseRegen, long currentTimeInMs) {
+        return baseRegen != null && baseRegen.regenRate > 0
+                && currentTimeInMs >= lastHitTimeInMs + (long) (baseRegen.waitBeforeRegen * 1000);
+    }
+}
@@ -0,0 +1,108 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Math;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.HealthConfig;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.metrics.HealthMetrics;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Maintains the quantized {@link HealthComponent#healthLevel} replicated to observers of an entity.
+ * <p>
+ * Entities whose health changed are collected and their health level is updated at most once per
+ * {@link HealthConfig#observedHealthUpdateIntervalMs update interval}. The component is only saved if the quantized
+ * level actually changed, so small changes, e.g., by regeneration, do not cause an update for observers at all.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class HealthReplicationAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    @In
+    private HealthConfig config;
+    @In
+    private HealthMetrics metrics;
+
+    private final Set<EntityRef> changedEntities = new LinkedHashSet<>();
+    private float timeSinceFlush;
+    private boolean flushing;
+
+    @ReceiveEvent
+    public void onHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health) {
+        markChanged(entity, health);
+    }
+
+    @ReceiveEvent
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health) {
+        markChanged(entity, health);
+    }
+
+    private void markChanged(EntityRef entity, HealthComponent health) {
+        // saving the health level below triggers a change event itself, and the level of entities not replicated to
+        // observers is never read
+        if (!flushing && health.replicateToClients) {
+            changedEntities.add(entity);
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        timeSinceFlush += delta;
+        if (changedEntities.isEmpty() || timeSinceFlush * 1000 < config.observedHealthUpdateIntervalMs.get()) {
+            return;
+        }
+        timeSinceFlush = 0;
+
+        long start = System.nanoTime();
+        flushing = true;
+        try {
+            for (EntityRef entity : changedEntities) {
+                HealthComponent health = entity.getComponent(HealthComponent.class);
+                if (health == null) {
+                    continue;
+                }
+                int level = healthLevel(health.currentHealth, health.maxHealth);
+                if (level != health.healthLevel) {
+                    health.healthLevel = level;
+                    entity.saveComponent(health);
+                }
+            }
+        } finally {
+            flushing = false;
+        }
+        changedEntities.clear();
+        metrics.record(HealthMetrics.Phase.HEALTH_REPLICATION, start);
+    }
+
+    /**
+     * Quantize the given health to [0..{@link HealthComponent#HEALTH_LEVELS}].
+     * <p>
+     * Any health above 0 maps to a level of at least 1, and any health below the maximum to a level of at most
+     * {@code HEALTH_LEVELS - 1}, so observers can still tell apart dead, damaged, and undamaged entities.
+     *
+     * @param currentHealth the current health
+     * @param maxHealth the maximum health
+     * @return the quantized health level
+     */
+    public static int healthLevel(int currentHealth, int maxHealth) {
+        if (currentHealth <= 0 || maxHealth <= 0) {
+            return 0;
+        }
+        if (currentHealth >= maxHealth) {
+            return HealthComponent.HEALTH_LEVELS;
+        }
+        int level = Math.round((float) currentHealth / maxHealth * HealthComponent.HEALTH_LEVELS);
+        return Math.clamp(1, HealthComponent.HEALTH_LEVELS - 1, level);
+    }
+}
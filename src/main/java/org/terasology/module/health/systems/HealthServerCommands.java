@@ -0,0 +1,167 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3ic;
+import org.terasology.engine.core.PathManager;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.permission.PermissionManager;
+import org.terasology.engine.registry.In;
+import org.terasology.gestalt.naming.Name;
+import org.terasology.module.health.metrics.HealthMetrics;
+import org.terasology.module.health.time.Instant;
+import org.terasology.module.health.trace.DamageTrace;
+import org.terasology.module.health.trace.HealthTraceRecorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Console commands to inspect the health module on the server.
+ * <p>
+ * The commands rely on authority systems, so they are registered on the server only; clients run them on the server.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class HealthServerCommands extends BaseComponentSystem {
+
+    private static final int STATS_TOP_CHUNKS = 10;
+    private static final int STATS_PAGE_LINES = 20;
+
+    @In
+    private HealthMetrics metrics;
+
+    @In
+    private HealthTraceRecorder traceRecorder;
+
+    @In
+    private DamageTrace damageTrace;
+
+    @In
+    private RegenAuthoritySystem regenSystem;
+
+    @In
+    private BlockDamageStreamAuthoritySystem blockDamageStream;
+
+    @In
+    private Time time;
+
+    @Command(shortDescription = "Show rates, totals and latencies of the health module", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthMetrics() {
+        return metrics.describe();
+    }
+
+    @Command(shortDescription = "Start capturing health events into a trace file", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthTraceStart(@CommandParam("name") String name) {
+        if (traceRecorder.isCapturing()) {
+            return "A health trace capture is already running";
+        }
+        if (!name.matches("[A-Za-z0-9_-]+")) {
+            return "Invalid trace name: only letters, digits, '_' and '-' are allowed";
+        }
+        Path directory = PathManager.getInstance().getHomePath().resolve("healthTraces");
+        Path file = directory.resolve(name + ".htrace");
+        try {
+            Files.createDirectories(directory);
+            traceRecorder.start(Files.newOutputStream(file));
+        } catch (IOException e) {
+            return "Failed to start the health trace capture: " + e.getMessage();
+        }
+        return "Capturing health events into " + file;
+    }
+
+    @Command(shortDescription = "Stop capturing health events", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthTraceStop() {
+        int events = traceRecorder.stop();
+        if (events < 0) {
+            return "No health trace capture is running";
+        }
+        return "Captured " + events + " health events";
+    }
+
+    @Command(shortDescription = "Show what the health module is doing, with the 10 most damaged chunks", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthStats() {
+        return String.join("\n", statsLines(STATS_TOP_CHUNKS));
+    }
+
+    @Command(shortDescription = "Show a page of the health statistics, with all damaged chunks", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthStatsPage(@CommandParam("page") int page) {
+        List<String> lines = statsLines(Integer.MAX_VALUE);
+        int pages = (lines.size() + STATS_PAGE_LINES - 1) / STATS_PAGE_LINES;
+        if (page < 1 || page > pages) {
+            return "Page must be between 1 and " + pages;
+        }
+        int from = (page - 1) * STATS_PAGE_LINES;
+        List<String> pageLines = lines.subList(from, Math.min(lines.size(), from + STATS_PAGE_LINES));
+        return "Page " + page + " of " + pages + "\n" + String.join("\n", pageLines);
+    }
+
+    /**
+     * The health statistics, based on the counters maintained by the health systems.
+     *
+     * @param maxChunks the maximum number of damaged chunks to list
+     */
+    private List<String> statsLines(int maxChunks) {
+        List<String> lines = new ArrayList<>();
+
+        lines.add("Regeneration actions (active / dormant entities):");
+        for (Name actionId : regenSystem.getActionIds()) {
+            lines.add(String.format("  %-32s %8d / %8d", actionId, regenSystem.getActiveCount(actionId),
+                    regenSystem.getDormantCount(actionId)));
+        }
+        Instant nextDeadline = regenSystem.getNextDeadline();
+        lines.add("Pending regeneration deadlines: " + regenSystem.getPendingDeadlines() + (nextDeadline.isNever() ? ""
+                : String.format(" (next in %.1fs)", (nextDeadline.getInMillis() - time.getGameTimeInMs()) / 1000f)));
+
+        lines.add("Damaged blocks: " + metrics.getGauge(HealthMetrics.Gauge.DAMAGED_BLOCKS) + " in "
+                + blockDamageStream.getDamagedChunkCount() + " chunks");
+        for (Map.Entry<Vector3ic, Integer> chunk : blockDamageStream.getMostDamagedChunks(maxChunks).entrySet()) {
+            Vector3ic position = chunk.getKey();
+            lines.add(String.format("  chunk (%d, %d, %d): %d", position.x(), position.y(), position.z(),
+                    chunk.getValue()));
+        }
+
+        lines.add("Emissions in the last minute: " + metrics.getLastMinute(HealthMetrics.Counter.PARTICLE_EFFECT)
+                + " particle effects, " + metrics.getLastMinute(HealthMetrics.Counter.DAMAGE_SOUND) + " damage sounds");
+
+        lines.add("Time per system (last second / session):");
+        for (HealthMetrics.Phase phase : HealthMetrics.Phase.values()) {
+            lines.add(String.format("  %-20s %8dµs / %8dms", phase, metrics.getLatency(phase).getTotalMicros(),
+                    metrics.getTotalMicros(phase) / 1000));
+        }
+        return lines;
+    }
+
+    @Command(shortDescription = "List the entities recorded by the damage trace", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthDamageTraces() {
+        if (damageTrace.getTracedEntities().isEmpty() && damageTrace.getDestroyedEntities().isEmpty()) {
+            return "No entities traced, enable the damage trace in the Health settings";
+        }
+        return "Traced entities: " + damageTrace.getTracedEntities() + "\nDestroyed entities: "
+                + damageTrace.getDestroyedEntities();
+    }
+
+    @Command(shortDescription = "Show the recorded damage and restoration of an entity", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthDamageTrace(@CommandParam("entityId") long entityId) {
+        List<String> lines = damageTrace.describe(entityId);
+        if (lines.isEmpty()) {
+            return "Entity " + entityId + " is not traced";
+        }
+        return String.join("\n", lines);
+    }
+}
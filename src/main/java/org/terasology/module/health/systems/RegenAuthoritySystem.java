@@ -2,14 +2,17 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.module.health.systems;
 
+import com.google.common.collect.ImmutableMap;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.gestalt.naming.Name;
 import org.terasology.module.health.components.HealthComponent;
@@ -17,8 +20,14 @@ import org.terasology.module.health.components.RegenComponent;
 import org.terasology.module.health.events.BeforeRegenEvent;
 import org.terasology.module.health.events.DeregisterRegenEvent;
 import org.terasology.module.health.events.RegisterRegenEvent;
+import org.terasology.module.health.metrics.HealthMetrics;
 import org.terasology.module.health.time.Instant;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * This system handles the natural regeneration of entities with HealthComponent.
  * <p>
@@ -26,6 +35,7 @@ import org.terasology.module.health.time.Instant;
  * checked five times per second (every 200ms) whether they are due for application.
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
+@Share(RegenAuthoritySystem.class)
 public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
     public static final String BASE_REGEN = "baseRegen";
@@ -36,6 +46,9 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
     @In
     Time time;
 
+    @In
+    HealthMetrics metrics;
+
     /**
      * The time delta in seconds elapsed since the last regeneration tick.
      * <p>
@@ -44,6 +57,20 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
      */
     float regenTick;
 
+    /**
+     * The number of entities per registered action at the last regeneration tick, as {@code [active, dormant]}.
+     * <p>
+     * Entities at full health are dormant, as their regeneration actions do not have any effect.
+     */
+    private final Map<Name, int[]> actionCounts = new HashMap<>();
+    /**
+     * Prebuilt action sets with a single indefinite action, shared by all regen components created by
+     * {@link #registerIndefinite(EntityRef, Name)} until their actions change.
+     */
+    private final Map<Name, Map<Name, Instant>> indefiniteActionSets = new HashMap<>();
+    private int pendingDeadlines;
+    private Instant nextDeadline = Instant.NEVER;
+
     @Override
     public void update(float delta) {
         //TODO: bring back to optimization to update each entity only once per second, but scan for
@@ -52,17 +79,83 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
         Instant currentTime = Instant.fromMillis(time.getGameTimeInMs());
 
         if (regenTick > 0.2f) {
-            entityManager.getEntitiesWith(HealthComponent.class, RegenComponent.class).forEach(entity -> {
+            long start = System.nanoTime();
+            int regenEntities = 0;
+            resetStatistics();
+            for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class, RegenComponent.class)) {
                 RegenComponent regen = entity.getComponent(RegenComponent.class);
                 HealthComponent health = entity.getComponent(HealthComponent.class);
 
                 applyRegeneration(entity, regen, health, regenTick);
                 // remove expired regen actions
-                regen.actions.values().removeIf(endTime -> endTime.isBefore(currentTime));
-            });
+                removeExpiredActions(regen, currentTime);
+                countActions(regen, health);
+                regenEntities++;
+            }
+            actionCounts.values().removeIf(counts -> counts[0] == 0 && counts[1] == 0);
 
             regenTick = 0f;
+            metrics.count(HealthMetrics.Counter.REGEN_TICK);
+            metrics.setGauge(HealthMetrics.Gauge.REGEN_ENTITIES, regenEntities);
+            metrics.record(HealthMetrics.Phase.REGEN, start);
+        }
+    }
+
+    private void resetStatistics() {
+        for (int[] counts : actionCounts.values()) {
+            counts[0] = 0;
+            counts[1] = 0;
         }
+        pendingDeadlines = 0;
+        nextDeadline = Instant.NEVER;
+    }
+
+    private void countActions(RegenComponent regen, HealthComponent health) {
+        int state = health.currentHealth < health.maxHealth ? 0 : 1;
+        for (Map.Entry<Name, Instant> action : regen.actions.entrySet()) {
+            actionCounts.computeIfAbsent(action.getKey(), id -> new int[2])[state]++;
+            if (!action.getValue().isNever()) {
+                pendingDeadlines++;
+                nextDeadline = nextDeadline.min(action.getValue());
+            }
+        }
+    }
+
+    /**
+     * The regeneration actions registered at the last regeneration tick.
+     */
+    public Set<Name> getActionIds() {
+        return Collections.unmodifiableSet(actionCounts.keySet());
+    }
+
+    /**
+     * The number of entities below their maximum health with the given action at the last regeneration tick.
+     */
+    public int getActiveCount(Name actionId) {
+        int[] counts = actionCounts.get(actionId);
+        return counts != null ? counts[0] : 0;
+    }
+
+    /**
+     * The number of entities at full health with the given action at the last regeneration tick.
+     */
+    public int getDormantCount(Name actionId) {
+        int[] counts = actionCounts.get(actionId);
+        return counts != null ? counts[1] : 0;
+    }
+
+    /**
+     * The number of registered actions with an expiration at the last regeneration tick.
+     */
+    public int getPendingDeadlines() {
+        return pendingDeadlines;
+    }
+
+    /**
+     * The earliest expiration of any registered action at the last regeneration tick, or {@link Instant#NEVER}.
+     */
+    public Instant getNextDeadline() {
+        return nextDeadline;
     }
 
     /**
@@ -110,21 +203,86 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
         return beforeRegenEvent;
     }
 
+    /**
+     * Register a regeneration action, or extend the expiration of an already registered action.
+     * <p>
+     * The regen component is only saved (and thus replicated) if the registered actions actually changed, e.g., not
+     * when an indefinite action is registered again.
+     */
     @ReceiveEvent(components = HealthComponent.class)
     public void onRegenActivated(RegisterRegenEvent event, EntityRef entity) {
         Instant currentTime = Instant.fromMillis(time.getGameTimeInMs());
         Instant endTime = currentTime.plus(event.duration);
 
-        entity.upsertComponent(RegenComponent.class, regenComponent -> {
-            RegenComponent regen = regenComponent.orElse(new RegenComponent());
-            regen.actions.merge(event.id, endTime, Instant::max);
-            return regen;
-        });
+        RegenComponent regen = entity.getComponent(RegenComponent.class);
+        if (regen == null) {
+            regen = new RegenComponent();
+            regen.actions.put(event.id, endTime);
+            entity.addComponent(regen);
+            return;
+        }
+        Instant previousEndTime = regen.actions.get(event.id);
+        Instant newEndTime = previousEndTime != null ? previousEndTime.max(endTime) : endTime;
+        if (!newEndTime.equals(previousEndTime)) {
+            mutableActions(regen).put(event.id, newEndTime);
+            entity.saveComponent(regen);
+        }
+    }
+
+    /**
+     * Register an indefinite regeneration action directly, without going through a {@link RegisterRegenEvent}.
+     * <p>
+     * This is meant for actions registered for every entity with a certain component when it is activated, e.g., the
+     * base regeneration of all entities in an area that is loaded. Entities without regen component get a component
+     * with a prebuilt action set shared with all other such entities, so neither an event nor a new action map or
+     * {@link Instant} is needed per entity. Entities which already have the action registered indefinitely, e.g.,
+     * because it was persisted with them, are left untouched.
+     *
+     * @param entity the entity to register the regeneration action for
+     * @param id the identifier of the regeneration action
+     */
+    public void registerIndefinite(EntityRef entity, Name id) {
+        RegenComponent regen = entity.getComponent(RegenComponent.class);
+        if (regen == null) {
+            regen = new RegenComponent();
+            regen.actions = indefiniteActionSets.computeIfAbsent(id, key -> ImmutableMap.of(key, Instant.NEVER));
+            entity.addComponent(regen);
+        } else if (!Instant.NEVER.equals(regen.actions.get(id))) {
+            mutableActions(regen).put(id, Instant.NEVER);
+            entity.saveComponent(regen);
+        }
+    }
+
+    /**
+     * The actions of the regen component, replacing a shared prebuilt action set with a copy of its own.
+     */
+    private static Map<Name, Instant> mutableActions(RegenComponent regen) {
+        if (regen.actions instanceof ImmutableMap) {
+            regen.actions = new HashMap<>(regen.actions);
+        }
+        return regen.actions;
+    }
+
+    private static void removeExpiredActions(RegenComponent regen, Instant currentTime) {
+        // shared action sets only hold indefinite actions
+        if (!(regen.actions instanceof ImmutableMap)) {
+            regen.actions.values().removeIf(endTime -> endTime.isBefore(currentTime));
+        }
+    }
+
+    /**
+     * Drop expired regeneration actions before the regen component is stored, e.g., when its chunk is unloaded.
+     * <p>
+     * Expired actions are otherwise only removed at the next regeneration tick, so they would be persisted needlessly.
+     */
+    @ReceiveEvent
+    public void beforeRegenStored(BeforeDeactivateComponent event, EntityRef entity, RegenComponent regen) {
+        removeExpiredActions(regen, Instant.fromMillis(time.getGameTimeInMs()));
     }
 
     @ReceiveEvent
     public void onRegenDeactivated(DeregisterRegenEvent event, EntityRef entity, RegenComponent regen) {
-        regen.actions.remove(event.id);
+        mutableActions(regen).remove(event.id);
 
         if (regen.actions.isEmpty()) {
             entity.removeComponent(RegenComponent.class);
@@ -8,6 +8,7 @@ import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.logic.health.EngineDamageTypes;
 import org.terasology.engine.logic.players.event.OnPlayerRespawnedEvent;
+import org.terasology.engine.registry.In;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.math.TeraMath;
 import org.terasology.module.health.components.HealthComponent;
@@ -17,6 +18,7 @@ import org.terasology.module.health.events.DoRestoreEvent;
 import org.terasology.module.health.events.OnFullyHealedEvent;
 import org.terasology.module.health.events.OnRestoredEvent;
 import org.terasology.module.health.events.RestoreFullHealthEvent;
+import org.terasology.module.health.trace.DamageTrace;
 
 /**
  * This system takes care of restoration of entities with HealthComponent.
@@ -32,6 +34,9 @@ import org.terasology.module.health.events.RestoreFullHealthEvent;
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class RestorationAuthoritySystem extends BaseComponentSystem {
 
+    @In
+    private DamageTrace damageTrace;
+
     @ReceiveEvent
     public void onRestore(DoRestoreEvent event, EntityRef entity, HealthComponent health) {
         // Ignore 0 restoration
@@ -39,23 +44,29 @@ public class RestorationAuthoritySystem extends BaseComponentSystem {
             return;
         }
         BeforeRestoreEvent beforeRestoreEvent = entity.send(new BeforeRestoreEvent(event.getAmount()));
-        if (!beforeRestoreEvent.isConsumed()) {
-            //TODO: it is probably better to cap the value at 0, and recommend systems who want to inflict damage on
-            // restoration to send out a DoDamageEvent instead.
-            int modifiedRestoreAmount = TeraMath.floorToInt(beforeRestoreEvent.getResultValueWithoutCapping());
-            if (modifiedRestoreAmount > 0) {
-                restore(entity, health, modifiedRestoreAmount);
-            } else {
-                // Cause "healing" damage to entity if modified value of restoration is negative
-                //TODO: don't send out DoDamageEvent as this will trigger another round of collector event(s)
-                entity.send(new DoDamageEvent(-modifiedRestoreAmount, EngineDamageTypes.HEALING.get()));
-            }
+        //TODO: it is probably better to cap the value at 0, and recommend systems who want to inflict damage on
+        // restoration to send out a DoDamageEvent instead.
+        int modifiedRestoreAmount = TeraMath.floorToInt(beforeRestoreEvent.getResultValueWithoutCapping());
+        int restored = 0;
+        if (!beforeRestoreEvent.isConsumed() && modifiedRestoreAmount > 0) {
+            restored = restore(entity, health, modifiedRestoreAmount);
+        }
+        // record before the "healing" damage, as it may destroy the entity
+        long entityId = entity.getId();
+        if (damageTrace.isTraced(entityId)) {
+            damageTrace.record(entityId, DamageTrace.RESTORE, beforeRestoreEvent, restored, health, null,
+                    event.getInstigator());
+        }
+        if (!beforeRestoreEvent.isConsumed() && modifiedRestoreAmount <= 0) {
+            // Cause "healing" damage to entity if modified value of restoration is negative
+            //TODO: don't send out DoDamageEvent as this will trigger another round of collector event(s)
+            entity.send(new DoDamageEvent(-modifiedRestoreAmount, EngineDamageTypes.HEALING.get()));
         }
     }
 
     //TODO: this is common functionality used for both restoration and regeneration.
     // Should probably live in a different place?
-    static void restore(EntityRef entity, HealthComponent health, int restoreAmount) {
+    static int restore(EntityRef entity, HealthComponent health, int restoreAmount) {
         int cappedHealth = Math.min(health.maxHealth, health.currentHealth + restoreAmount);
         int cappedRestoreAmount = cappedHealth - health.currentHealth;
         health.currentHealth = cappedHealth;
@@ -64,6 +75,7 @@ public class RestorationAuthoritySystem extends BaseComponentSystem {
         if (cappedHealth == health.maxHealth) {
             entity.send(new OnFullyHealedEvent(entity));
         }
+        return cappedRestoreAmount;
     }
 
     @ReceiveEvent
@@ -5,10 +5,21 @@ package org.terasology.module.health.time;
 
 import com.google.common.base.Objects;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public final class Duration {
 
     public static final Duration INFINITE = new Duration(-1L);
 
+    /** The maximum number of distinct strings remembered by {@link #parse(String)}. */
+    private static final int MAX_PARSED_STRINGS = 1024;
+    private static final Map<String, Duration> PARSED_STRINGS = new ConcurrentHashMap<>();
+    /** A decimal number with an optional unit, see {@link #parse(String)}. */
+    private static final Pattern DURATION_PATTERN = Pattern.compile("(-?\\d+(?:\\.\\d+)?)\\s*(ms|s)?");
+
     private final long durationInMs;
 
     private Duration(long durationInMs) {
@@ -31,6 +42,41 @@ public final class Duration {
         return new Duration((long) durationInSeconds * 1000);
     }
 
+    /**
+     * Parse a human-friendly duration, e.g., {@code "1.2s"} or {@code "400ms"}.
+     * <p>
+     * Numbers without unit are interpreted as milliseconds, and negative values denote an {@link #INFINITE} duration.
+     * Only plain decimal numbers are accepted, i.e., no exponents, {@code NaN} or {@code Infinity}.
+     * The same strings are usually parsed over and over again, e.g., when loading prefabs or entities, so parsed
+     * durations are cached per string.
+     *
+     * @param text the duration with an optional unit of {@code ms} or {@code s}
+     * @return the parsed duration
+     * @throws IllegalArgumentException if the text is not a valid duration
+     */
+    public static Duration parse(String text) {
+        Duration duration = PARSED_STRINGS.get(text);
+        if (duration == null) {
+            duration = parseUncached(text);
+            if (PARSED_STRINGS.size() < MAX_PARSED_STRINGS) {
+                PARSED_STRINGS.put(text, duration);
+            }
+        }
+        return duration;
+    }
+
+    private static Duration parseUncached(String text) {
+        Matcher matcher = DURATION_PATTERN.matcher(text.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid duration: '" + text + "'");
+        }
+        double value = Double.parseDouble(matcher.group(1));
+        if (value < 0) {
+            return INFINITE;
+        }
+        return fromMillis(Math.round("s".equals(matcher.group(2)) ? value * 1000 : value));
+    }
+
     // ------------------------------------------------------------------------
 
     public boolean isInfinite() {
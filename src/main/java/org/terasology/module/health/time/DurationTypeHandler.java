@@ -10,6 +10,12 @@ import org.terasology.persistence.typeHandling.TypeHandler;
 
 import java.util.Optional;
 
+/**
+ * Serializes a {@link Duration} as number of milliseconds.
+ * <p>
+ * Besides numbers, human-friendly strings like {@code "1.2s"} or {@code "400ms"} are accepted, e.g., in prefabs (see
+ * {@link Duration#parse(String)}).
+ */
 @RegisterTypeHandler
 public class DurationTypeHandler extends TypeHandler<Duration> {
     @Override
@@ -19,10 +25,16 @@ public class DurationTypeHandler extends TypeHandler<Duration> {
 
     @Override
     public Optional<Duration> deserialize(PersistedData data) {
-        //TODO: allow non-number format, e.g., "1.2s" or "400ms".
         if (data.isNumber()) {
             return Optional.of(Duration.fromMillis(data.getAsLong()));
         }
+        if (data.isString()) {
+            try {
+                return Optional.of(Duration.parse(data.getAsString()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
         return Optional.empty();
     }
 }
@@ -10,6 +10,12 @@ import org.terasology.persistence.typeHandling.TypeHandler;
 
 import java.util.Optional;
 
+/**
+ * Serializes an {@link Instant} as game time in milliseconds.
+ * <p>
+ * Unlike {@link DurationTypeHandler}, only numbers are accepted: instants are absolute game times, which are persisted
+ * with entities rather than written by hand, e.g., in prefabs.
+ */
 @RegisterTypeHandler
 public class InstantTypeHandler extends TypeHandler<Instant> {
     @Override
@@ -19,7 +25,6 @@ public class InstantTypeHandler extends TypeHandler<Instant> {
 
     @Override
     public Optional<Instant> deserialize(PersistedData data) {
-        //TODO: allow non-number format, e.g., "1.2s" or "400ms".
         if (data.isNumber()) {
             return Optional.of(Instant.fromMillis(data.getAsLong()));
         }
@@ -0,0 +1,220 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+import gnu.trove.list.TFloatList;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.engine.entitySystem.event.AbstractConsumableValueModifiableEvent;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.HealthConfig;
+import org.terasology.module.health.components.HealthComponent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An opt-in trace of the damage and restoration applied to a sample of entities, to find out why an entity died or did
+ * not regenerate.
+ * <p>
+ * If {@link HealthConfig#damageTraceEnabled enabled}, the damage and restoration systems record every mutation of a
+ * sampled entity: the base amount, the contributions of the modifiers, the amount actually applied, the instigator,
+ * the damage type, and the resulting health. Entities are sampled by their id according to the
+ * {@link HealthConfig#damageTraceSampleRate sample rate}, so that the history of a sampled entity is complete.
+ * <p>
+ * Each entity keeps its latest {@link #RECORDS_PER_ENTITY} records in a primitive ring buffer, and at most
+ * {@link #MAX_ENTITIES} entities are traced at once, evicting the least recently damaged one. When the trace is
+ * disabled, {@link #isTraced(long)} is a single setting lookup.
+ * <p>
+ * When a traced entity is destroyed or loses its health, its records are moved aside, so that a new entity with the
+ * same id starts with an empty history, while the records leading to the destruction can still be
+ * {@link #describe(long) described} for a while; the latest {@link #MAX_DESTROYED_ENTITIES} are kept.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(DamageTrace.class)
+public class DamageTrace extends BaseComponentSystem {
+
+    public static final byte DAMAGE = 0;
+    public static final byte RESTORE = 1;
+
+    static final int RECORDS_PER_ENTITY = 32;
+    static final int MAX_ENTITIES = 1024;
+    static final int MAX_DESTROYED_ENTITIES = 64;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    @In
+    private HealthConfig config;
+    @In
+    private Time time;
+
+    /** The ring buffers by entity id, in the order the entities were last recorded. */
+    private final Map<Long, DamageTraceBuffer> buffers = new LinkedHashMap<Long, DamageTraceBuffer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, DamageTraceBuffer> eldest) {
+            return size() > MAX_ENTITIES;
+        }
+    };
+    /** The ring buffers of destroyed entities by their former id, in the order the entities were destroyed. */
+    private final Map<Long, DamageTraceBuffer> destroyedBuffers = new LinkedHashMap<Long, DamageTraceBuffer>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, DamageTraceBuffer> eldest) {
+            return size() > MAX_DESTROYED_ENTITIES;
+        }
+    };
+    /** Damage type urns, referenced by index from the buffers; index 0 denotes no damage type. */
+    private final List<String> damageTypes = new ArrayList<>();
+    private final Map<Prefab, Integer> damageTypeIndices = new HashMap<>();
+
+    @Override
+    public void initialise() {
+        damageTypes.add("-");
+    }
+
+    /**
+     * Whether mutations of the entity should be recorded.
+     * <p>
+     * Callers have to decide this before applying the mutation, as a fatal hit may destroy the entity.
+     *
+     * @param entityId the id of the entity, see {@link EntityRef#getId()}
+     */
+    public boolean isTraced(long entityId) {
+        if (!config.damageTraceEnabled.get()) {
+            return false;
+        }
+        return buffers.containsKey(entityId) || isSampled(entityId, config.damageTraceSampleRate.get());
+    }
+
+    /**
+     * Whether an entity id falls into the sample, using the upper bits of a hash of the id.
+     */
+    static boolean isSampled(long entityId, float sampleRate) {
+        long hash = entityId * GOLDEN_GAMMA;
+        return (hash >>> 40) < (long) (sampleRate * (1 << 24));
+    }
+
+    /**
+     * Record a damage or restoration after it was applied to the entity.
+     * <p>
+     * Callers have to record a fatal hit before destroying the entity, as the records of an entity are moved aside
+     * when it is destroyed.
+     *
+     * @param entityId the id of the damaged or restored entity
+     * @param kind either {@link #DAMAGE} or {@link #RESTORE}
+     * @param event the collector event after all systems contributed to it
+     * @param appliedAmount the damage or restoration actually applied, i.e., capped at the health of the entity
+     * @param health the health component of the entity the mutation was applied to, or {@code null}
+     * @param damageType the damage type, or {@code null}
+     * @param instigator the instigator of the damage or restoration
+     */
+    public void record(long entityId, byte kind, AbstractConsumableValueModifiableEvent event, int appliedAmount,
+                       HealthComponent health, Prefab damageType, EntityRef instigator) {
+        DamageTraceBuffer buffer = buffers.computeIfAbsent(entityId, id -> new DamageTraceBuffer(RECORDS_PER_ENTITY));
+        int index = buffer.claim();
+        buffer.kinds[index] = kind;
+        buffer.consumed[index] = event.isConsumed();
+        buffer.gameTimes[index] = time.getGameTimeInMs();
+        buffer.baseAmounts[index] = event.getBaseValue();
+        buffer.added[index] = sum(event.getModifiers());
+        buffer.multipliers[index] = product(event.getMultipliers());
+        buffer.postAdded[index] = sum(event.getPostModifiers());
+        buffer.modifierCounts[index] = event.getModifiers().size() + event.getMultipliers().size()
+                + event.getPostModifiers().size();
+        buffer.finalAmounts[index] = appliedAmount;
+        buffer.healthAfter[index] = health != null ? health.currentHealth : -1;
+        buffer.instigators[index] = instigator.getId();
+        buffer.damageTypes[index] = damageTypeIndex(damageType);
+    }
+
+    /**
+     * Move the records of an entity aside when it is destroyed or loses its health.
+     */
+    @ReceiveEvent(components = HealthComponent.class)
+    public void onHealthRemoved(BeforeRemoveComponent event, EntityRef entity) {
+        DamageTraceBuffer buffer = buffers.remove(entity.getId());
+        if (buffer != null) {
+            destroyedBuffers.remove(entity.getId());
+            destroyedBuffers.put(entity.getId(), buffer);
+        }
+    }
+
+    /**
+     * The ids of all traced entities, least recently recorded first.
+     */
+    public Set<Long> getTracedEntities() {
+        return buffers.keySet();
+    }
+
+    /**
+     * The former ids of the latest traced entities which were destroyed or lost their health, least recently
+     * destroyed first.
+     */
+    public Set<Long> getDestroyedEntities() {
+        return destroyedBuffers.keySet();
+    }
+
+    /**
+     * A human-readable list of the records of an entity, oldest first, e.g., for the console.
+     * <p>
+     * If no entity with the id is traced, the records of the destroyed entity which had the id are listed instead.
+     *
+     * @param entityId the id of the entity
+     * @return the records of the entity, or an empty list if it is not traced
+     */
+    public List<String> describe(long entityId) {
+        List<String> lines = new ArrayList<>();
+        DamageTraceBuffer buffer = buffers.getOrDefault(entityId, destroyedBuffers.get(entityId));
+        if (buffer == null) {
+            return lines;
+        }
+        for (int i = 0; i < buffer.size(); i++) {
+            int index = buffer.index(i);
+            lines.add(String.format("t=%dms %s%s base %.1f, +%.1f, x%.2f, +%.1f (%d modifiers) = %d, health %d, "
+                            + "by %d, type %s",
+                    buffer.gameTimes[index],
+                    buffer.kinds[index] == DAMAGE ? "damage" : "restore",
+                    buffer.consumed[index] ? " (consumed)" : "",
+                    buffer.baseAmounts[index], buffer.added[index], buffer.multipliers[index], buffer.postAdded[index],
+                    buffer.modifierCounts[index], buffer.finalAmounts[index], buffer.healthAfter[index],
+                    buffer.instigators[index], damageTypes.get(buffer.damageTypes[index])));
+        }
+        return lines;
+    }
+
+    private int damageTypeIndex(Prefab damageType) {
+        if (damageType == null) {
+            return 0;
+        }
+        return damageTypeIndices.computeIfAbsent(damageType, type -> {
+            damageTypes.add(type.getUrn().toString());
+            return damageTypes.size() - 1;
+        });
+    }
+
+    private static float sum(TFloatList values) {
+        float sum = 0;
+        for (int i = 0; i < values.size(); i++) {
+            sum += values.get(i);
+        }
+        return sum;
+    }
+
+    private static float product(TFloatList values) {
+        float product = 1;
+        for (int i = 0; i < values.size(); i++) {
+            product *= values.get(i);
+        }
+        return product;
+    }
+}
@@ -0,0 +1,69 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+/**
+ * A fixed-size ring buffer of the latest damage and restoration records of a single entity.
+ * <p>
+ * The records are kept in primitive arrays, so recording does not allocate once the buffer was created.
+ */
+final class DamageTraceBuffer {
+
+    final byte[] kinds;
+    final boolean[] consumed;
+    final long[] gameTimes;
+    final float[] baseAmounts;
+    /** The sum of all modifiers added before the multipliers. */
+    final float[] added;
+    /** The product of all multipliers. */
+    final float[] multipliers;
+    /** The sum of all modifiers added after the multipliers. */
+    final float[] postAdded;
+    final int[] modifierCounts;
+    /** The damage or restoration actually applied, capped at the health of the entity. */
+    final int[] finalAmounts;
+    final int[] healthAfter;
+    final long[] instigators;
+    final int[] damageTypes;
+
+    private int next;
+    private int size;
+
+    DamageTraceBuffer(int capacity) {
+        kinds = new byte[capacity];
+        consumed = new boolean[capacity];
+        gameTimes = new long[capacity];
+        baseAmounts = new float[capacity];
+        added = new float[capacity];
+        multipliers = new float[capacity];
+        postAdded = new float[capacity];
+        modifierCounts = new int[capacity];
+        finalAmounts = new int[capacity];
+        healthAfter = new int[capacity];
+        instigators = new long[capacity];
+        damageTypes = new int[capacity];
+    }
+
+    /**
+     * Claim the slot for a new record, overwriting the oldest record if the buffer is full.
+     *
+     * @return the index of the slot to fill in
+     */
+    int claim() {
+        int index = next;
+        next = (next + 1) % kinds.length;
+        size = Math.min(size + 1, kinds.length);
+        return index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The slot index of the i-th record, starting with the oldest one.
+     */
+    int index(int i) {
+        return (next - size + i + kinds.length) % kinds.length;
+    }
+}
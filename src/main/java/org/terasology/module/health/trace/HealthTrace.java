@@ -0,0 +1,46 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+/**
+ * Constants of the binary health trace format written by {@link HealthTraceWriter} and read by
+ * {@link HealthTraceReader}.
+ * <p>
+ * A trace starts with the {@link #MAGIC} number and the format {@link #VERSION}, followed by records. Each record starts
+ * with its type. Event records continue with the game time in milliseconds since the previous event record and the id
+ * of the target entity. Integers are written as (zig-zag encoded) variable-length integers, and strings, e.g., damage
+ * types and regeneration ids, are written once into a string table and referenced by index afterwards.
+ * <ul>
+ *     <li>{@link #STRING}: the next string table entry</li>
+ *     <li>{@link #ENTITY}: the health state of an entity when it is first targeted by an event</li>
+ *     <li>{@link #DAMAGE}, {@link #RESTORE}, {@link #REGISTER_REGEN}, {@link #DEREGISTER_REGEN},
+ *     {@link #CHANGE_MAX_HEALTH}: the recorded events</li>
+ *     <li>{@link #FINAL_STATE}: the health of an entity when the capture was stopped</li>
+ *     <li>{@link #END}: the end of the trace</li>
+ * </ul>
+ */
+public final class HealthTrace {
+
+    public static final int MAGIC = 0x48545243;
+    public static final int VERSION = 1;
+
+    public static final byte STRING = 0;
+    public static final byte ENTITY = 1;
+    public static final byte DAMAGE = 2;
+    public static final byte RESTORE = 3;
+    public static final byte REGISTER_REGEN = 4;
+    public static final byte DEREGISTER_REGEN = 5;
+    public static final byte CHANGE_MAX_HEALTH = 6;
+    public static final byte FINAL_STATE = 7;
+    public static final byte END = 8;
+
+    /** Flag of an {@link #ENTITY} record denoting that the entity has a health component. */
+    public static final int HAS_HEALTH = 1;
+    /** Flag of an {@link #ENTITY} record denoting that the entity has a base regen component. */
+    public static final int HAS_BASE_REGEN = 1 << 1;
+    /** Flag of an {@link #ENTITY} record denoting that the entity is destroyed when its health drops to zero. */
+    public static final int DESTROY_ON_NO_HEALTH = 1 << 2;
+
+    private HealthTrace() {
+    }
+}
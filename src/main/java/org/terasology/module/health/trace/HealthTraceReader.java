@@ -0,0 +1,151 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads records in the binary {@link HealthTrace} format.
+ * <p>
+ * String table entries are resolved while reading, so {@link #next()} only returns entity, event, and final state
+ * records.
+ */
+public class HealthTraceReader implements Closeable {
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private final HealthTraceRecord record = new HealthTraceRecord();
+    private long gameTimeMs;
+    private boolean ended;
+
+    public HealthTraceReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != HealthTrace.MAGIC) {
+            throw new IOException("Not a health trace");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != HealthTrace.VERSION) {
+            throw new IOException("Unsupported health trace version " + version);
+        }
+    }
+
+    /**
+     * Read the next record.
+     * <p>
+     * The returned record is reused by subsequent calls, so callers have to copy what they want to keep.
+     *
+     * @return the next record, or {@code null} at the end of the trace
+     * @throws IOException if the trace cannot be read or is malformed
+     */
+    public HealthTraceRecord next() throws IOException {
+        while (!ended) {
+            byte type;
+            try {
+                type = in.readByte();
+            } catch (EOFException e) {
+                // tolerate traces of servers which did not stop the capture properly
+                ended = true;
+                return null;
+            }
+            record.type = type;
+            record.gameTimeMs = gameTimeMs;
+            switch (type) {
+                case HealthTrace.STRING:
+                    strings.add(in.readUTF());
+                    continue;
+                case HealthTrace.ENTITY:
+                    record.target = readVarLong();
+                    record.flags = in.readUnsignedByte();
+                    boolean hasHealth = (record.flags & HealthTrace.HAS_HEALTH) != 0;
+                    record.maxHealth = hasHealth ? (int) readZigZag() : -1;
+                    record.currentHealth = hasHealth ? (int) readZigZag() : -1;
+                    boolean hasBaseRegen = (record.flags & HealthTrace.HAS_BASE_REGEN) != 0;
+                    record.regenRate = hasBaseRegen ? in.readFloat() : 0;
+                    record.waitBeforeRegen = hasBaseRegen ? in.readFloat() : 0;
+                    return record;
+                case HealthTrace.DAMAGE:
+                    readEventHeader();
+                    record.amount = (int) readZigZag();
+                    record.text = readString();
+                    record.instigator = readVarLong();
+                    record.directCause = readVarLong();
+                    return record;
+                case HealthTrace.RESTORE:
+                    readEventHeader();
+                    record.amount = (int) readZigZag();
+                    record.instigator = readVarLong();
+                    return record;
+                case HealthTrace.REGISTER_REGEN:
+                    readEventHeader();
+                    record.text = readString();
+                    record.durationMs = readZigZag();
+                    return record;
+                case HealthTrace.DEREGISTER_REGEN:
+                    readEventHeader();
+                    record.text = readString();
+                    return record;
+                case HealthTrace.CHANGE_MAX_HEALTH:
+                    readEventHeader();
+                    record.value = in.readFloat();
+                    return record;
+                case HealthTrace.FINAL_STATE:
+                    record.target = readVarLong();
+                    record.maxHealth = (int) readZigZag();
+                    record.currentHealth = (int) readZigZag();
+                    return record;
+                case HealthTrace.END:
+                    ended = true;
+                    return null;
+                default:
+                    throw new IOException("Unknown health trace record type " + type);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readEventHeader() throws IOException {
+        gameTimeMs += readVarLong();
+        record.gameTimeMs = gameTimeMs;
+        record.target = readVarLong();
+    }
+
+    private String readString() throws IOException {
+        int index = (int) readVarLong();
+        if (index == 0) {
+            return null;
+        }
+        if (index > strings.size()) {
+            throw new IOException("Undefined health trace string " + index);
+        }
+        return strings.get(index - 1);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer in health trace");
+    }
+
+    private long readZigZag() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
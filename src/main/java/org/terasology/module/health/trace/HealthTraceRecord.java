@@ -0,0 +1,36 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+/**
+ * A single record read from a health trace.
+ * <p>
+ * Which fields are set depends on the {@link #type} of the record, see {@link HealthTrace}. Entity ids refer to the
+ * entities on the recording server; 0 denotes no entity.
+ */
+public class HealthTraceRecord {
+    public byte type;
+    /** The game time in milliseconds relative to the start of the capture. */
+    public long gameTimeMs;
+    public long target;
+
+    /** The damage or restoration amount. */
+    public int amount;
+    /** The damage type prefab urn for damage records, or the regeneration id for regen records. */
+    public String text;
+    public long instigator;
+    public long directCause;
+    /** The regeneration duration in milliseconds, negative for an infinite duration. */
+    public long durationMs;
+    /** The base value of a max health change. */
+    public float value;
+
+    /** The entity flags of {@link HealthTrace#ENTITY} records. */
+    public int flags;
+    /** The maximum health for entity and final state records, -1 if the entity has no health. */
+    public int maxHealth;
+    /** The current health for entity and final state records, -1 if the entity has no health. */
+    public int currentHealth;
+    public float regenRate;
+    public float waitBeforeRegen;
+}
@@ -0,0 +1,278 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.Priority;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.core.BaseRegenComponent;
+import org.terasology.module.health.events.ChangeMaxHealthEvent;
+import org.terasology.module.health.events.DeregisterRegenEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.events.DoRestoreEvent;
+import org.terasology.module.health.events.RegisterRegenEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Captures the health events of a running server into a {@link HealthTrace}.
+ * <p>
+ * While a capture is running, every {@link DoDamageEvent}, {@link DoRestoreEvent}, {@link RegisterRegenEvent},
+ * {@link DeregisterRegenEvent}, and {@link ChangeMaxHealthEvent} is written to the trace before any other system
+ * handles it. The health state of each entity is written when it is targeted for the first time, and the final health
+ * of all targeted entities is written when the capture is stopped, so that a {@link HealthTraceReplayer} can check
+ * whether a replay reached the same state.
+ * <p>
+ * Only top-level events are recorded, not those sent while another recorded event is processed. Damage applied
+ * without one of these events, e.g., collision damage, is not part of the trace. When no capture is running, the event
+ * handlers return right away.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HealthTraceRecorder.class)
+public class HealthTraceRecorder extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(HealthTraceRecorder.class);
+    /** The priority of the handlers noticing that an event was processed by all other systems. */
+    private static final int AFTER_ALL_SYSTEMS = Integer.MIN_VALUE;
+
+    @In
+    private Time time;
+
+    private HealthTraceWriter writer;
+    /** The entities targeted during the current capture by their id, in the order they were first targeted. */
+    private final Map<Long, EntityRef> targets = new LinkedHashMap<>();
+    private int recordedEvents;
+    /**
+     * The recorded event currently being processed, or {@code null}.
+     * <p>
+     * Events sent by the health systems while they process a recorded event, e.g., the damage caused by reducing the
+     * maximum health, are not recorded, as a replay of the outer event sends them again.
+     */
+    private Object outerEvent;
+
+    @Override
+    public void shutdown() {
+        stop();
+    }
+
+    /**
+     * Start capturing health events into the given stream.
+     *
+     * @param out the stream to write the trace to; it is closed when the capture is stopped
+     * @throws IOException if the trace header cannot be written
+     * @throws IllegalStateException if a capture is already running
+     */
+    public void start(OutputStream out) throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("A health trace capture is already running");
+        }
+        writer = new HealthTraceWriter(out);
+        targets.clear();
+        recordedEvents = 0;
+        outerEvent = null;
+    }
+
+    /**
+     * Stop the current capture, write the final health of all targeted entities, and close the trace.
+     *
+     * @return the number of recorded events, or -1 if no capture was running
+     */
+    public int stop() {
+        if (writer == null) {
+            return -1;
+        }
+        try {
+            for (Map.Entry<Long, EntityRef> target : targets.entrySet()) {
+                HealthComponent health = target.getValue().getComponent(HealthComponent.class);
+                if (health != null) {
+                    writer.writeFinalState(target.getKey(), health.maxHealth, health.currentHealth);
+                } else {
+                    writer.writeFinalState(target.getKey(), -1, -1);
+                }
+            }
+            writer.close();
+        } catch (IOException e) {
+            logger.error("Failed to finish the health trace", e);
+        }
+        writer = null;
+        targets.clear();
+        return recordedEvents;
+    }
+
+    public boolean isCapturing() {
+        return writer != null;
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onDamage(DoDamageEvent event, EntityRef entity) {
+        if (outerEvent != null || writer == null) {
+            return;
+        }
+        outerEvent = event;
+        try {
+            long target = track(entity);
+            String damageType = event.getDamageType() != null ? event.getDamageType().getUrn().toString() : null;
+            writer.writeDamage(time.getGameTimeInMs(), target, event.getAmount(), damageType,
+                    event.getInstigator().getId(), event.getDirectCause().getId());
+            recordedEvents++;
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onRestore(DoRestoreEvent event, EntityRef entity) {
+        if (outerEvent != null || writer == null) {
+            return;
+        }
+        outerEvent = event;
+        try {
+            long target = track(entity);
+            writer.writeRestore(time.getGameTimeInMs(), target, event.getAmount(), event.getInstigator().getId());
+            recordedEvents++;
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onRegisterRegen(RegisterRegenEvent event, EntityRef entity) {
+        if (outerEvent != null || writer == null) {
+            return;
+        }
+        outerEvent = event;
+        try {
+            long target = track(entity);
+            long durationMs = event.duration == null || event.duration.isInfinite() ? -1 : event.duration.getInMillis();
+            writer.writeRegisterRegen(time.getGameTimeInMs(), target, event.id.toString(), durationMs);
+            recordedEvents++;
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onDeregisterRegen(DeregisterRegenEvent event, EntityRef entity) {
+        if (outerEvent != null || writer == null) {
+            return;
+        }
+        outerEvent = event;
+        try {
+            long target = track(entity);
+            writer.writeDeregisterRegen(time.getGameTimeInMs(), target, event.id.toString());
+            recordedEvents++;
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onChangeMaxHealth(ChangeMaxHealthEvent event, EntityRef entity) {
+        if (outerEvent != null || writer == null) {
+            return;
+        }
+        outerEvent = event;
+        try {
+            long target = track(entity);
+            writer.writeChangeMaxHealth(time.getGameTimeInMs(), target, event.getBaseValue());
+            recordedEvents++;
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+
+    // the recorded events are not consumable, so these handlers run once all other systems processed the event; they
+    // use the lowest possible priority so that they do not depend on the order of handlers with the same priority
+
+    @Priority(AFTER_ALL_SYSTEMS)
+    @ReceiveEvent
+    public void afterDamage(DoDamageEvent event, EntityRef entity) {
+        endEvent(event);
+    }
+
+    @Priority(AFTER_ALL_SYSTEMS)
+    @ReceiveEvent
+    public void afterRestore(DoRestoreEvent event, EntityRef entity) {
+        endEvent(event);
+    }
+
+    @Priority(AFTER_ALL_SYSTEMS)
+    @ReceiveEvent
+    public void afterRegisterRegen(RegisterRegenEvent event, EntityRef entity) {
+        endEvent(event);
+    }
+
+    @Priority(AFTER_ALL_SYSTEMS)
+    @ReceiveEvent
+    public void afterDeregisterRegen(DeregisterRegenEvent event, EntityRef entity) {
+        endEvent(event);
+    }
+
+    @Priority(AFTER_ALL_SYSTEMS)
+    @ReceiveEvent
+    public void afterChangeMaxHealth(ChangeMaxHealthEvent event, EntityRef entity) {
+        endEvent(event);
+    }
+
+    private void endEvent(Object event) {
+        if (event == outerEvent) {
+            outerEvent = null;
+        }
+    }
+
+    /**
+     * The id of the entity in the trace, writing its current health state if it is targeted for the first time.
+     */
+    private long track(EntityRef entity) throws IOException {
+        long id = entity.getId();
+        if (!targets.containsKey(id)) {
+            targets.put(id, entity);
+            HealthComponent health = entity.getComponent(HealthComponent.class);
+            BaseRegenComponent baseRegen = entity.getComponent(BaseRegenComponent.class);
+            int flags = 0;
+            if (health != null) {
+                flags |= HealthTrace.HAS_HEALTH;
+                if (health.destroyEntityOnNoHealth) {
+                    flags |= HealthTrace.DESTROY_ON_NO_HEALTH;
+                }
+            }
+            if (baseRegen != null) {
+                flags |= HealthTrace.HAS_BASE_REGEN;
+            }
+            writer.writeEntity(id, flags,
+                    health != null ? health.maxHealth : -1,
+                    health != null ? health.currentHealth : -1,
+                    baseRegen != null ? baseRegen.regenRate : 0,
+                    baseRegen != null ? baseRegen.waitBeforeRegen : 0);
+        }
+        return id;
+    }
+
+    private void abort(IOException e) {
+        logger.error("Failed to write the health trace, stopping the capture", e);
+        try {
+            writer.close();
+        } catch (IOException closeException) {
+            e.addSuppressed(closeException);
+        }
+        writer = null;
+        targets.clear();
+    }
+}
@@ -0,0 +1,175 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.gestalt.naming.Name;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.core.BaseRegenComponent;
+import org.terasology.module.health.events.ChangeMaxHealthEvent;
+import org.terasology.module.health.events.DeregisterRegenEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.events.DoRestoreEvent;
+import org.terasology.module.health.events.RegisterRegenEvent;
+import org.terasology.module.health.time.Duration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Replays a {@link HealthTrace} against the entity system it is created for.
+ * <p>
+ * Every entity of the trace is replaced by a fresh entity with the recorded health state, and the recorded events are
+ * sent to these entities in order. Before each event, the replayer hands the game time of the event (relative to the
+ * start of the trace) to a clock callback, which is expected to advance the game until then. A benchmark harness can
+ * run the game loop as fast as possible in that callback; a plain unit test may ignore it if regeneration is not
+ * involved.
+ * <p>
+ * Finally, the health of the replayed entities is compared to the final states of the trace. Regeneration is applied
+ * per tick, so a replay with a different tick rate may end up with slightly different health if regeneration was still
+ * active when the capture was stopped.
+ */
+public class HealthTraceReplayer {
+
+    private final EntityManager entityManager;
+    private final PrefabManager prefabManager;
+
+    /** The replayed entities by their id in the trace. */
+    private final Map<Long, EntityRef> entities = new HashMap<>();
+
+    public HealthTraceReplayer(EntityManager entityManager, PrefabManager prefabManager) {
+        this.entityManager = entityManager;
+        this.prefabManager = prefabManager;
+    }
+
+    /**
+     * Replay all records of the trace.
+     *
+     * @param reader the trace to replay
+     * @param clock called with the game time in milliseconds (relative to the start of the trace) before each event
+     * @return the outcome of the replay
+     * @throws IOException if the trace cannot be read
+     */
+    public Result replay(HealthTraceReader reader, LongConsumer clock) throws IOException {
+        Result result = new Result();
+        long startNanos = System.nanoTime();
+        long lastGameTimeMs = 0;
+        HealthTraceRecord record;
+        while ((record = reader.next()) != null) {
+            if (record.type != HealthTrace.ENTITY && record.type != HealthTrace.FINAL_STATE
+                    && record.gameTimeMs != lastGameTimeMs) {
+                clock.accept(record.gameTimeMs);
+                lastGameTimeMs = record.gameTimeMs;
+            }
+            switch (record.type) {
+                case HealthTrace.ENTITY:
+                    restoreEntity(entity(record.target), record);
+                    break;
+                case HealthTrace.DAMAGE:
+                    Prefab damageType = record.text != null ? prefabManager.getPrefab(record.text) : null;
+                    entity(record.target).send(new DoDamageEvent(record.amount, damageType,
+                            entity(record.instigator), entity(record.directCause)));
+                    result.events++;
+                    break;
+                case HealthTrace.RESTORE:
+                    entity(record.target).send(new DoRestoreEvent(record.amount, entity(record.instigator)));
+                    result.events++;
+                    break;
+                case HealthTrace.REGISTER_REGEN:
+                    Duration duration = record.durationMs < 0 ? Duration.INFINITE : Duration.fromMillis(record.durationMs);
+                    entity(record.target).send(new RegisterRegenEvent(new Name(record.text), duration));
+                    result.events++;
+                    break;
+                case HealthTrace.DEREGISTER_REGEN:
+                    entity(record.target).send(new DeregisterRegenEvent(new Name(record.text)));
+                    result.events++;
+                    break;
+                case HealthTrace.CHANGE_MAX_HEALTH:
+                    entity(record.target).send(new ChangeMaxHealthEvent(record.value));
+                    result.events++;
+                    break;
+                case HealthTrace.FINAL_STATE:
+                    compare(record, result);
+                    break;
+                default:
+                    break;
+            }
+        }
+        result.durationNanos = System.nanoTime() - startNanos;
+        return result;
+    }
+
+    /**
+     * The replayed entity for an id of the trace.
+     * <p>
+     * Entities are created empty on first use, so entities which only appear as instigator or direct cause stay empty.
+     */
+    private EntityRef entity(long id) {
+        if (id == 0) {
+            return EntityRef.NULL;
+        }
+        return entities.computeIfAbsent(id, key -> entityManager.create());
+    }
+
+    private void restoreEntity(EntityRef entity, HealthTraceRecord record) {
+        if ((record.flags & HealthTrace.HAS_HEALTH) != 0) {
+            HealthComponent health = new HealthComponent();
+            health.maxHealth = record.maxHealth;
+            health.currentHealth = record.currentHealth;
+            health.destroyEntityOnNoHealth = (record.flags & HealthTrace.DESTROY_ON_NO_HEALTH) != 0;
+            entity.addComponent(health);
+        }
+        if ((record.flags & HealthTrace.HAS_BASE_REGEN) != 0) {
+            BaseRegenComponent baseRegen = new BaseRegenComponent();
+            baseRegen.regenRate = record.regenRate;
+            baseRegen.waitBeforeRegen = record.waitBeforeRegen;
+            entity.addComponent(baseRegen);
+        }
+    }
+
+    private void compare(HealthTraceRecord record, Result result) {
+        EntityRef entity = entities.get(record.target);
+        HealthComponent health = entity != null ? entity.getComponent(HealthComponent.class) : null;
+        int maxHealth = health != null ? health.maxHealth : -1;
+        int currentHealth = health != null ? health.currentHealth : -1;
+        if (maxHealth != record.maxHealth || currentHealth != record.currentHealth) {
+            result.mismatches.add("entity " + record.target + ": expected " + record.currentHealth + "/"
+                    + record.maxHealth + " but was " + currentHealth + "/" + maxHealth);
+        }
+    }
+
+    /**
+     * The outcome of a replay.
+     */
+    public static class Result {
+        private final List<String> mismatches = new ArrayList<>();
+        private int events;
+        private long durationNanos;
+
+        /** Descriptions of all entities whose replayed health differs from the recorded final state. */
+        public List<String> getMismatches() {
+            return mismatches;
+        }
+
+        public boolean isConsistent() {
+            return mismatches.isEmpty();
+        }
+
+        /** The number of replayed events. */
+        public int getEvents() {
+            return events;
+        }
+
+        /** The wall clock time the replay took, including the time spent in the clock callback. */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.module.health.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes records in the binary {@link HealthTrace} format.
+ */
+public class HealthTraceWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private long startTimeMs = -1;
+    private long lastTimeMs;
+
+    public HealthTraceWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(HealthTrace.MAGIC);
+        this.out.writeByte(HealthTrace.VERSION);
+    }
+
+    public void writeEntity(long entity, int flags, int maxHealth, int currentHealth, float regenRate,
+                            float waitBeforeRegen) throws IOException {
+        out.writeByte(HealthTrace.ENTITY);
+        writeVarLong(entity);
+        out.writeByte(flags);
+        if ((flags & HealthTrace.HAS_HEALTH) != 0) {
+            writeVarLong(zigZag(maxHealth));
+            writeVarLong(zigZag(currentHealth));
+        }
+        if ((flags & HealthTrace.HAS_BASE_REGEN) != 0) {
+            out.writeFloat(regenRate);
+            out.writeFloat(waitBeforeRegen);
+        }
+    }
+
+    public void writeDamage(long gameTimeMs, long target, int amount, String damageType, long instigator,
+                            long directCause) throws IOException {
+        int damageTypeIndex = stringIndex(damageType);
+        writeEventHeader(HealthTrace.DAMAGE, gameTimeMs, target);
+        writeVarLong(zigZag(amount));
+        writeVarLong(damageTypeIndex);
+        writeVarLong(instigator);
+        writeVarLong(directCause);
+    }
+
+    public void writeRestore(long gameTimeMs, long target, int amount, long instigator) throws IOException {
+        writeEventHeader(HealthTrace.RESTORE, gameTimeMs, target);
+        writeVarLong(zigZag(amount));
+        writeVarLong(instigator);
+    }
+
+    public void writeRegisterRegen(long gameTimeMs, long target, String id, long durationMs) throws IOException {
+        int idIndex = stringIndex(id);
+        writeEventHeader(HealthTrace.REGISTER_REGEN, gameTimeMs, target);
+        writeVarLong(idIndex);
+        writeVarLong(zigZag(durationMs));
+    }
+
+    public void writeDeregisterRegen(long gameTimeMs, long target, String id) throws IOException {
+        int idIndex = stringIndex(id);
+        writeEventHeader(HealthTrace.DEREGISTER_REGEN, gameTimeMs, target);
+        writeVarLong(idIndex);
+    }
+
+    public void writeChangeMaxHealth(long gameTimeMs, long target, float baseValue) throws IOException {
+        writeEventHeader(HealthTrace.CHANGE_MAX_HEALTH, gameTimeMs, target);
+        out.writeFloat(baseValue);
+    }
+
+    public void writeFinalState(long entity, int maxHealth, int currentHealth) throws IOException {
+        out.writeByte(HealthTrace.FINAL_STATE);
+        writeVarLong(entity);
+        writeVarLong(zigZag(maxHealth));
+        writeVarLong(zigZag(currentHealth));
+    }
+
+    /**
+     * Write the end of the trace and close the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.writeByte(HealthTrace.END);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeEventHeader(byte type, long gameTimeMs, long target) throws IOException {
+        if (startTimeMs < 0) {
+            startTimeMs = gameTimeMs;
+            lastTimeMs = gameTimeMs;
+        }
+        out.writeByte(type);
+        writeVarLong(Math.max(0, gameTimeMs - lastTimeMs));
+        lastTimeMs = Math.max(lastTimeMs, gameTimeMs);
+        writeVarLong(target);
+    }
+
+    /**
+     * The index of the string in the string table, plus one to reserve 0 for {@code null}.
+     * <p>
+     * Strings not in the table yet are written right away.
+     */
+    private int stringIndex(String text) throws IOException {
+        if (text == null) {
+            return 0;
+        }
+        Integer index = strings.get(text);
+        if (index == null) {
+            index = strings.size() + 1;
+            strings.put(text, index);
+            out.writeByte(HealthTrace.STRING);
+            out.writeUTF(text);
+        }
+        return index;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
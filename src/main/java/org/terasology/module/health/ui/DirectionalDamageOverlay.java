@@ -3,7 +3,7 @@
 
 package org.terasology.module.health.ui;
 
-import com.google.common.collect.Lists;
+import org.joml.Math;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.math.Direction;
 import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
@@ -11,45 +11,56 @@ import org.terasology.nui.Canvas;
 import org.terasology.nui.widgets.UIImage;
 import org.terasology.engine.registry.In;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * Indicates the direction of incoming damage by fading in an image at the respective edge of the screen.
+ * <p>
+ * The timing of each indicator is kept in fixed per-direction arrays. Hits requested via {@link #show(Direction,
+ * float)} or {@link #showAll(float)} are only recorded and applied once per frame, so many hits arriving within the
+ * same frame result in a single update per direction.
+ */
 public class DirectionalDamageOverlay extends CoreHudWidget {
 
+    private static final int TOP = 0;
+    private static final int RIGHT = 1;
+    private static final int LEFT = 2;
+    private static final int BOTTOM = 3;
+    private static final int INDICATOR_COUNT = 4;
+
     @In
     private Time time;
 
-    private UIImage bottom;
-    private UIImage top;
-    private UIImage left;
-    private UIImage right;
+    private final UIImage[] indicators = new UIImage[INDICATOR_COUNT];
 
-    private List<UIImage> indicators;
-    private final Map<UIImage, TimingInformation> activeIndicators = new HashMap<>();
+    /** In-game time (in seconds) at which the indicator was last triggered. */
+    private final float[] start = new float[INDICATOR_COUNT];
+    /** In-game time (in seconds) at which the indicator fades out; not active if not after the current time. */
+    private final float[] end = new float[INDICATOR_COUNT];
+    /** The longest duration (in seconds) requested for each indicator since the last frame, or 0 if none. */
+    private final float[] requested = new float[INDICATOR_COUNT];
+    private boolean hasRequests;
 
     @Override
     public void initialise() {
-        bottom = find("damageBottom", UIImage.class);
-        top = find("damageTop", UIImage.class);
-        left = find("damageLeft", UIImage.class);
-        right = find("damageRight", UIImage.class);
-
-        indicators = Lists.newArrayList(top, right, left, bottom);
+        indicators[TOP] = find("damageTop", UIImage.class);
+        indicators[RIGHT] = find("damageRight", UIImage.class);
+        indicators[LEFT] = find("damageLeft", UIImage.class);
+        indicators[BOTTOM] = find("damageBottom", UIImage.class);
     }
 
-    private UIImage imageForDirection(Direction direction) {
+    private static int indexForDirection(Direction direction) {
         switch (direction) {
             case UP:
             case FORWARD:
-                return top;
+                return TOP;
             case RIGHT:
-                return right;
+                return RIGHT;
             case LEFT:
-                return left;
+                return LEFT;
             case DOWN:
             case BACKWARD:
-                return bottom;
+                return BOTTOM;
             default:
                 throw new IllegalStateException();
         }
@@ -59,24 +70,54 @@ public class DirectionalDamageOverlay extends CoreHudWidget {
     public void onDraw(Canvas canvas) {
         float currentTime = time.getGameTime();
 
-        // update state: update active indicators
-        activeIndicators.entrySet().removeIf(activeIndicator -> activeIndicator.getValue().end <= currentTime);
+        // update state: apply the hits recorded since the last frame
+        if (hasRequests) {
+            for (int i = 0; i < INDICATOR_COUNT; i++) {
+                if (requested[i] > 0) {
+                    start[i] = currentTime;
+                    end[i] = currentTime + requested[i];
+                }
+            }
+            Arrays.fill(requested, 0);
+            hasRequests = false;
+        }
 
         // render state: render active indicators
-        for (UIImage indicator : indicators) {
-            boolean isActive = activeIndicators.containsKey(indicator);
+        for (int i = 0; i < INDICATOR_COUNT; i++) {
+            UIImage indicator = indicators[i];
+            boolean isActive = end[i] > currentTime;
             indicator.setVisible(isActive);
             if (isActive) {
-                TimingInformation timing = activeIndicators.get(indicator);
-                indicator.setTint(indicator.getTint().setAlpha(timing.lerp(currentTime)));
+                float alpha = Math.lerp(0, 1, currentTime / (end[i] - start[i]));
+                indicator.setTint(indicator.getTint().setAlpha(alpha));
             }
         }
         super.onDraw(canvas);
     }
 
+    /**
+     * Show the damage indicator for the given direction.
+     *
+     * @param damageDirection the direction the damage came from, relative to the player's view
+     * @param durationInSeconds how long the indicator is shown
+     */
     public void show(Direction damageDirection, float durationInSeconds) {
-        float currentTime = time.getGameTime();
-        activeIndicators.put(imageForDirection(damageDirection), new TimingInformation(currentTime,
-                currentTime + durationInSeconds));
+        request(indexForDirection(damageDirection), durationInSeconds);
+    }
+
+    /**
+     * Show the damage indicators for all directions, e.g., for damage without a known source.
+     *
+     * @param durationInSeconds how long the indicators are shown
+     */
+    public void showAll(float durationInSeconds) {
+        for (int i = 0; i < INDICATOR_COUNT; i++) {
+            request(i, durationInSeconds);
+        }
+    }
+
+    private void request(int index, float durationInSeconds) {
+        requested[index] = Math.max(requested[index], durationInSeconds);
+        hasRequests = true;
     }
 }
@@ -3,39 +3,53 @@
 package org.terasology.module.health.ui;
 
 import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
-import org.terasology.module.health.components.HealthComponent;
-import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.nui.databinding.ReadOnlyBinding;
 import org.terasology.nui.widgets.UIIconBar;
-import org.terasology.engine.registry.In;
 
+/**
+ * Shows the health of the local player's character as a bar of icons.
+ * <p>
+ * The HUD does not look up the character's health itself, but displays the values pushed to it via
+ * {@link #setHealth(float, float)} whenever the health of the local character changes.
+ */
 public class HealthHud extends CoreHudWidget {
 
-    @In
-    private LocalPlayer localPlayer;
+    private UIIconBar healthBar;
+    private float currentHealth;
+    private float maxHealth;
 
     @Override
     public void initialise() {
-        UIIconBar healthBar = find("healthBar", UIIconBar.class);
+        healthBar = find("healthBar", UIIconBar.class);
         healthBar.bindValue(new ReadOnlyBinding<Float>() {
             @Override
             public Float get() {
-                HealthComponent healthComponent = localPlayer.getCharacterEntity().getComponent(HealthComponent.class);
-                if (healthComponent != null) {
-                    return (float) healthComponent.currentHealth;
-                }
-                return 0f;
+                return currentHealth;
             }
         });
         healthBar.bindMaxValue(new ReadOnlyBinding<Float>() {
             @Override
             public Float get() {
-                HealthComponent healthComponent = localPlayer.getCharacterEntity().getComponent(HealthComponent.class);
-                if (healthComponent != null) {
-                    return (float) healthComponent.maxHealth;
-                }
-                return 0f;
+                return maxHealth;
             }
         });
     }
+
+    /**
+     * Update the health values shown by this HUD element.
+     *
+     * @param currentHealth the current health of the local character
+     * @param maxHealth the maximum health of the local character
+     */
+    public void setHealth(float currentHealth, float maxHealth) {
+        this.currentHealth = currentHealth;
+        this.maxHealth = maxHealth;
+    }
+
+    /**
+     * Set the number of icons the health bar is divided into.
+     */
+    public void setMaxIcons(int maxIcons) {
+        healthBar.setMaxIcons(maxIcons);
+    }
 }
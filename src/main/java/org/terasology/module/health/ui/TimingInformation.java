@@ -5,7 +5,14 @@ package org.terasology.module.health.ui;
 
 import org.joml.Math;
 
+/**
+ * The start and end of a timed effect in in-game seconds.
+ *
+ * @deprecated This is no longer used by the {@link DirectionalDamageOverlay}, which keeps the timing of its hits in
+ *         fixed per-direction arrays. Scheduled for removal in a future major version.
+ */
 //TODO: move this into the engine (next to `Time` class?) Should we use float (seconds) or long (ms)?
+@Deprecated
 public class TimingInformation {
     /**
      * In-game time (in seconds) for starting the timing.
@@ -0,0 +1,95 @@
+// Copyright 2022 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.integrationenvironment.jupiter.IntegrationEnvironment;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.trace.DamageTrace;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@IntegrationEnvironment(dependencies = "Health")
+public class DamageTraceEventTest {
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected HealthConfig config;
+    @In
+    protected DamageTrace damageTrace;
+
+    @BeforeEach
+    public void enableTrace() {
+        config.damageTraceEnabled.set(true);
+        config.damageTraceSampleRate.set(1f);
+    }
+
+    @AfterEach
+    public void disableTrace() {
+        config.damageTraceEnabled.set(false);
+    }
+
+    private EntityRef newEntity(int currentHealth) {
+        HealthComponent healthComponent = new HealthComponent();
+        healthComponent.currentHealth = currentHealth;
+        healthComponent.maxHealth = 100;
+        healthComponent.destroyEntityOnNoHealth = true;
+
+        EntityRef entity = entityManager.create();
+        entity.addComponent(healthComponent);
+        return entity;
+    }
+
+    @Test
+    public void fatalHitIsRecorded() {
+        EntityRef attacker = entityManager.create();
+        EntityRef victim = newEntity(50);
+        long victimId = victim.getId();
+
+        victim.send(new DoDamageEvent(20, EngineDamageTypes.PHYSICAL.get(), attacker));
+        victim.send(new DoDamageEvent(40, EngineDamageTypes.PHYSICAL.get(), attacker));
+        assertFalse(victim.exists());
+
+        List<String> records = damageTrace.describe(victimId);
+        assertEquals(2, records.size());
+        String fatalHit = records.get(1);
+        assertTrue(fatalHit.contains("= 30, health 0"), fatalHit);
+        assertTrue(fatalHit.contains("by " + attacker.getId()), fatalHit);
+    }
+
+    @Test
+    public void destroyedEntityIsNoLongerTraced() {
+        EntityRef victim = newEntity(50);
+        long victimId = victim.getId();
+
+        victim.send(new DoDamageEvent(20));
+        assertTrue(damageTrace.getTracedEntities().contains(victimId));
+
+        victim.destroy();
+        assertFalse(damageTrace.getTracedEntities().contains(victimId));
+        assertTrue(damageTrace.getDestroyedEntities().contains(victimId));
+        assertEquals(1, damageTrace.describe(victimId).size());
+    }
+
+    @Test
+    public void nothingIsRecordedWhenDisabled() {
+        config.damageTraceEnabled.set(false);
+        EntityRef victim = newEntity(50);
+
+        victim.send(new DoDamageEvent(20));
+
+        assertTrue(damageTrace.describe(victim.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+// Copyright 2022 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.engine.integrationenvironment.ModuleTestingHelper;
+import org.terasology.engine.integrationenvironment.jupiter.IntegrationEnvironment;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.events.ChangeMaxHealthEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.events.DoRestoreEvent;
+import org.terasology.module.health.trace.HealthTraceReader;
+import org.terasology.module.health.trace.HealthTraceRecorder;
+import org.terasology.module.health.trace.HealthTraceReplayer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@IntegrationEnvironment(dependencies = "Health")
+public class HealthTraceTest {
+    private static final Logger logger = LoggerFactory.getLogger(HealthTraceTest.class);
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected PrefabManager prefabManager;
+    @In
+    protected Time time;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthTraceRecorder recorder;
+
+    private EntityRef newEntity(int currentHealth) {
+        HealthComponent healthComponent = new HealthComponent();
+        healthComponent.currentHealth = currentHealth;
+        healthComponent.maxHealth = 100;
+        healthComponent.destroyEntityOnNoHealth = true;
+
+        EntityRef entity = entityManager.create();
+        entity.addComponent(healthComponent);
+        return entity;
+    }
+
+    @Test
+    public void recordedTraceReplaysToSameState() throws IOException {
+        EntityRef attacker = newEntity(100);
+        EntityRef victim = newEntity(80);
+        EntityRef doomed = newEntity(20);
+        EntityRef shrinking = newEntity(80);
+
+        ByteArrayOutputStream trace = new ByteArrayOutputStream();
+        recorder.start(trace);
+        victim.send(new DoDamageEvent(30, EngineDamageTypes.PHYSICAL.get(), attacker));
+        victim.send(new DoRestoreEvent(10, attacker));
+        victim.send(new ChangeMaxHealthEvent(120));
+        attacker.send(new DoDamageEvent(5, EngineDamageTypes.DIRECT.get(), victim));
+        doomed.send(new DoDamageEvent(50, EngineDamageTypes.PHYSICAL.get(), attacker));
+        // the damage caused by reducing the maximum health is not recorded, as the replay causes it again
+        shrinking.send(new ChangeMaxHealthEvent(50));
+        assertEquals(6, recorder.stop());
+        assertEquals(50, shrinking.getComponent(HealthComponent.class).currentHealth);
+        assertEquals(50, shrinking.getComponent(HealthComponent.class).maxHealth);
+
+        HealthTraceReplayer replayer = new HealthTraceReplayer(entityManager, prefabManager);
+        HealthTraceReplayer.Result result;
+        try (HealthTraceReader reader = new HealthTraceReader(new ByteArrayInputStream(trace.toByteArray()))) {
+            result = replayer.replay(reader, gameTimeMs -> { });
+        }
+
+        assertEquals(6, result.getEvents());
+        assertTrue(result.isConsistent(), () -> String.join("\n", result.getMismatches()));
+    }
+
+    /**
+     * Replays a trace captured on a server, given by the {@code health.trace.file} system property, as fast as the
+     * game loop allows and reports how long it took.
+     */
+    @Test
+    @Tag("scale")
+    public void replayCapturedTrace() throws IOException {
+        String file = System.getProperty("health.trace.file");
+        assumeTrue(file != null, "no trace given via health.trace.file");
+
+        long startTime = time.getGameTimeInMs();
+        HealthTraceReplayer replayer = new HealthTraceReplayer(entityManager, prefabManager);
+        HealthTraceReplayer.Result result;
+        try (InputStream in = Files.newInputStream(Paths.get(file));
+             HealthTraceReader reader = new HealthTraceReader(in)) {
+            result = replayer.replay(reader,
+                    gameTimeMs -> helper.runUntil(() -> time.getGameTimeInMs() >= startTime + gameTimeMs));
+        }
+
+        logger.info("Replayed {} health events in {} ms", result.getEvents(), result.getDurationNanos() / 1_000_000);
+        assertTrue(result.isConsistent(), () -> String.join("\n", result.getMismatches()));
+    }
+}
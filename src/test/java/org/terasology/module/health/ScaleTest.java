@@ -0,0 +1,288 @@
+// Copyright 2022 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.integrationenvironment.ModuleTestingHelper;
+import org.terasology.engine.integrationenvironment.jupiter.IntegrationEnvironment;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.logic.players.PlayerCharacterComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.module.health.components.HealthComponent;
+import org.terasology.module.health.core.BaseRegenComponent;
+import org.terasology.module.health.events.DoBlockRegionDamageEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.health.metrics.HealthMetrics;
+import org.terasology.module.health.metrics.HealthMetricsSink;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Large-scale scenarios running the real health systems, measuring the time and allocation per tick against a budget.
+ * <p>
+ * Timings depend on the machine running the tests, so exceeded budgets are only logged by default. Set the system
+ * property {@code health.scale.enforceBudgets} to {@code true} to fail the tests instead. The budgets can be adjusted
+ * via system properties:
+ * <ul>
+ *     <li>{@code health.scale.tickBudgetMs} - maximum time of a single tick, including the engine's own work, and of a
+ *     single step of the scenario, e.g., damaging all players once</li>
+ *     <li>{@code health.scale.phaseBudgetMs} - maximum time of a single damage or regeneration pass</li>
+ *     <li>{@code health.scale.allocationBudgetBytes} - maximum average allocation per tick and per scenario step</li>
+ *     <li>{@code health.scale.explosionBudgetMs} - maximum time of the tick damaging all blocks of the explosion</li>
+ * </ul>
+ * The scenarios take a while and are tagged with {@code scale}, so they can be excluded from regular test runs.
+ */
+@IntegrationEnvironment(dependencies = "Health")
+@Tag("scale")
+public class ScaleTest {
+    private static final long TICK_BUDGET_MS = Long.getLong("health.scale.tickBudgetMs", 250);
+    private static final long PHASE_BUDGET_MS = Long.getLong("health.scale.phaseBudgetMs", 100);
+    private static final long ALLOCATION_BUDGET_BYTES = Long.getLong("health.scale.allocationBudgetBytes", 2L << 20);
+    private static final long EXPLOSION_BUDGET_MS = Long.getLong("health.scale.explosionBudgetMs", 2000);
+
+    private static final boolean ENFORCE_BUDGETS = Boolean.getBoolean("health.scale.enforceBudgets");
+
+    private static final long SCENARIO_DURATION_MS = 3000;
+
+    private static final Logger logger = LoggerFactory.getLogger(ScaleTest.class);
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected Time time;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthMetrics metrics;
+    @In
+    protected WorldProvider worldProvider;
+    @In
+    protected BlockManager blockManager;
+
+    @Test
+    public void regeneratingNpcs() {
+        List<EntityRef> npcs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            HealthComponent health = new HealthComponent();
+            health.maxHealth = 100;
+            health.currentHealth = 50;
+
+            BaseRegenComponent baseRegen = new BaseRegenComponent();
+            baseRegen.regenRate = 10;
+            baseRegen.waitBeforeRegen = 0;
+
+            EntityRef npc = entityManager.create();
+            npc.addComponent(health);
+            npc.addComponent(baseRegen);
+            npcs.add(npc);
+        }
+
+        TickStats stats = run(SCENARIO_DURATION_MS, () -> { });
+
+        assertWithinBudget(stats, HealthMetrics.Phase.REGEN);
+        assertTrue(stats.maxGauges.get(HealthMetrics.Gauge.REGEN_ENTITIES) >= npcs.size());
+        for (EntityRef npc : npcs) {
+            assertTrue(npc.getComponent(HealthComponent.class).currentHealth > 50, "all NPCs should have regenerated");
+        }
+    }
+
+    @Test
+    public void blockExplosion() {
+        Block testBlock = blockManager.getBlock("health:test");
+        Block air = blockManager.getBlock(BlockManager.AIR_ID);
+        Vector3i origin = new Vector3i(0, -20, 0);
+        helper.forceAndWaitForGeneration(origin);
+
+        // 25 x 10 x 20 blocks within a single chunk
+        Map<Vector3ic, Block> blocks = new HashMap<>();
+        for (int x = 0; x < 25; x++) {
+            for (int y = 0; y < 10; y++) {
+                for (int z = 0; z < 20; z++) {
+                    blocks.put(new Vector3i(origin).add(x, y, z), testBlock);
+                }
+            }
+        }
+        assertEquals(5000, blocks.size());
+        worldProvider.setBlocks(blocks);
+
+        EntityRef source = entityManager.create();
+        boolean[] exploded = {false};
+        TickStats stats = run(SCENARIO_DURATION_MS, () -> {
+            if (!exploded[0]) {
+                source.send(new DoBlockRegionDamageEvent(blocks.keySet(), 1000, EngineDamageTypes.DIRECT.get(),
+                        EntityRef.NULL, EntityRef.NULL));
+                exploded[0] = true;
+            }
+        });
+
+        long explosionMs = stats.maxDriverNanos / 1_000_000;
+        checkBudget(explosionMs <= EXPLOSION_BUDGET_MS,
+                "explosion took " + explosionMs + "ms, budget is " + EXPLOSION_BUDGET_MS + "ms");
+        assertTickWithinBudget(stats);
+        for (Vector3ic position : blocks.keySet()) {
+            assertEquals(air, worldProvider.getBlock(position), "all blocks should have been destroyed");
+        }
+    }
+
+    @Test
+    public void playersUnderContinuousDamage() {
+        List<EntityRef> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            HealthComponent health = new HealthComponent();
+            health.maxHealth = 100_000;
+            health.currentHealth = 100_000;
+
+            EntityRef player = entityManager.create();
+            player.addComponent(new PlayerCharacterComponent());
+            player.addComponent(health);
+            players.add(player);
+        }
+
+        TickStats stats = run(SCENARIO_DURATION_MS, () -> {
+            for (EntityRef player : players) {
+                player.send(new DoDamageEvent(1));
+            }
+        });
+
+        assertWithinBudget(stats, HealthMetrics.Phase.DAMAGE);
+        assertTrue(stats.ticks > 0);
+        for (EntityRef player : players) {
+            assertTrue(player.getComponent(HealthComponent.class).currentHealth < 100_000,
+                    "all players should have been damaged");
+        }
+    }
+
+    /**
+     * Run the game for the given duration, calling {@code perTick} once per tick, and collect the time and allocation
+     * per tick as well as the health metrics published in the meantime.
+     * <p>
+     * The time and allocation of {@code perTick}, which drives the scenario, are collected separately from the rest of
+     * the tick, i.e., the engine and the health systems updating.
+     */
+    private TickStats run(long durationMs, Runnable perTick) {
+        TickStats stats = new TickStats();
+        HealthMetricsSink sink = stats::collect;
+        metrics.addSink(sink);
+        try {
+            long end = time.getGameTimeInMs() + durationMs;
+            long[] last = {System.nanoTime(), allocatedBytes()};
+            helper.runWhile(() -> {
+                long now = System.nanoTime();
+                long allocated = allocatedBytes();
+                stats.recordTick(now - last[0], allocated - last[1]);
+
+                perTick.run();
+                last[0] = System.nanoTime();
+                last[1] = allocatedBytes();
+                stats.recordDriver(last[0] - now, last[1] - allocated);
+                return time.getGameTimeInMs() < end;
+            });
+        } finally {
+            metrics.removeSink(sink);
+        }
+        return stats;
+    }
+
+    private static void assertWithinBudget(TickStats stats, HealthMetrics.Phase phase) {
+        assertTickWithinBudget(stats);
+        checkBudget(stats.maxDriverNanos / 1_000_000 <= TICK_BUDGET_MS,
+                "slowest scenario step took " + stats.maxDriverNanos / 1_000_000 + "ms, budget is " + TICK_BUDGET_MS
+                        + "ms");
+        checkBudget(stats.averageDriverAllocatedBytes() <= ALLOCATION_BUDGET_BYTES,
+                "scenario steps allocated " + stats.averageDriverAllocatedBytes() + " bytes on average, budget is "
+                        + ALLOCATION_BUDGET_BYTES + " bytes");
+        long phaseMs = stats.maxPhaseMicros.getOrDefault(phase, 0L) / 1000;
+        checkBudget(phaseMs <= PHASE_BUDGET_MS,
+                "slowest " + phase + " pass took " + phaseMs + "ms, budget is " + PHASE_BUDGET_MS + "ms");
+    }
+
+    private static void assertTickWithinBudget(TickStats stats) {
+        checkBudget(stats.maxTickNanos / 1_000_000 <= TICK_BUDGET_MS,
+                "slowest tick took " + stats.maxTickNanos / 1_000_000 + "ms, budget is " + TICK_BUDGET_MS + "ms");
+        checkBudget(stats.averageAllocatedBytes() <= ALLOCATION_BUDGET_BYTES,
+                "ticks allocated " + stats.averageAllocatedBytes() + " bytes on average, budget is "
+                        + ALLOCATION_BUDGET_BYTES + " bytes");
+    }
+
+    /**
+     * Fail if a budget is exceeded and budgets are enforced, otherwise only log it.
+     */
+    private static void checkBudget(boolean withinBudget, String message) {
+        if (ENFORCE_BUDGETS) {
+            assertTrue(withinBudget, message);
+        } else if (!withinBudget) {
+            logger.warn("Budget exceeded: {}", message);
+        } else {
+            logger.info(message);
+        }
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static final class TickStats {
+        int ticks;
+        long maxTickNanos;
+        long totalAllocatedBytes;
+        int driverSteps;
+        long maxDriverNanos;
+        long totalDriverAllocatedBytes;
+        final Map<HealthMetrics.Phase, Long> maxPhaseMicros = new EnumMap<>(HealthMetrics.Phase.class);
+        final Map<HealthMetrics.Gauge, Long> maxGauges = new EnumMap<>(HealthMetrics.Gauge.class);
+
+        void recordTick(long nanos, long allocatedBytes) {
+            ticks++;
+            maxTickNanos = Math.max(maxTickNanos, nanos);
+            totalAllocatedBytes += allocatedBytes;
+        }
+
+        void recordDriver(long nanos, long allocatedBytes) {
+            driverSteps++;
+            maxDriverNanos = Math.max(maxDriverNanos, nanos);
+            totalDriverAllocatedBytes += allocatedBytes;
+        }
+
+        long averageAllocatedBytes() {
+            return ticks == 0 ? 0 : totalAllocatedBytes / ticks;
+        }
+
+        long averageDriverAllocatedBytes() {
+            return driverSteps == 0 ? 0 : totalDriverAllocatedBytes / driverSteps;
+        }
+
+        void collect(HealthMetrics metrics) {
+            for (HealthMetrics.Phase phase : HealthMetrics.Phase.values()) {
+                maxPhaseMicros.merge(phase, metrics.getLatency(phase).getMaxMicros(), Math::max);
+            }
+            for (HealthMetrics.Gauge gauge : HealthMetrics.Gauge.values()) {
+                maxGauges.merge(gauge, metrics.getGauge(gauge), Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockDamageStreamAuthoritySystemTest {
+
+    private static final float RADIUS = 8f;
+
+    private static final Vector3i ORIGIN_CHUNK = new Vector3i(0, 0, 0);
+    private static final Vector3i NEIGHBOR_CHUNK = new Vector3i(1, 0, 0);
+    private static final Vector3i FAR_CHUNK = new Vector3i(10, 0, 0);
+
+    private final Map<Vector3i, ChunkDamageLevels> damagedChunks = new HashMap<>();
+    private final Set<Vector3i> subscribed = new HashSet<>();
+    private final List<Vector3i> entered = new ArrayList<>();
+    private final List<Vector3i> left = new ArrayList<>();
+
+    @BeforeEach
+    void damageChunks() {
+        damagedChunks.put(ORIGIN_CHUNK, damagedChunk());
+        damagedChunks.put(NEIGHBOR_CHUNK, damagedChunk());
+        damagedChunks.put(FAR_CHUNK, damagedChunk());
+    }
+
+    private static ChunkDamageLevels damagedChunk() {
+        ChunkDamageLevels chunk = new ChunkDamageLevels();
+        chunk.set(0, 1);
+        return chunk;
+    }
+
+    /** A position in the middle of the origin chunk, more than {@link #RADIUS} away from the neighbor chunk. */
+    private static Vector3f center() {
+        return new Vector3f(Chunks.SIZE_X / 2f - 0.5f, Chunks.SIZE_Y / 2f, Chunks.SIZE_Z / 2f - 0.5f);
+    }
+
+    private void update(Vector3f position) {
+        entered.clear();
+        left.clear();
+        BlockDamageStreamAuthoritySystem.updateSubscriptions(subscribed, damagedChunks, position, RADIUS, entered,
+                left);
+    }
+
+    @Test
+    void chunkContainingPositionIsInRange() {
+        assertTrue(BlockDamageStreamAuthoritySystem.isInRange(ORIGIN_CHUNK, center(), 0f));
+        assertFalse(BlockDamageStreamAuthoritySystem.isInRange(NEIGHBOR_CHUNK, center(), 0f));
+    }
+
+    @Test
+    void rangeIsMeasuredToChunkBoundary() {
+        // the neighbor chunk starts at x = SIZE_X - 0.5, i.e., at the boundary of the last block of the origin chunk
+        Vector3f position = new Vector3f(Chunks.SIZE_X - 0.5f - RADIUS, 0, 0);
+
+        assertTrue(BlockDamageStreamAuthoritySystem.isInRange(NEIGHBOR_CHUNK, position, RADIUS));
+        assertFalse(BlockDamageStreamAuthoritySystem.isInRange(NEIGHBOR_CHUNK, position.sub(0.1f, 0, 0), RADIUS));
+    }
+
+    @Test
+    void subscribesDamagedChunksInRange() {
+        update(center());
+
+        assertEquals(List.of(ORIGIN_CHUNK), entered);
+        assertTrue(left.isEmpty());
+        assertEquals(Set.of(ORIGIN_CHUNK), subscribed);
+    }
+
+    @Test
+    void doesNotSubscribeChunksWithoutDamagedBlocks() {
+        damagedChunks.get(ORIGIN_CHUNK).set(0, 0);
+
+        update(center());
+
+        assertTrue(entered.isEmpty());
+        assertTrue(subscribed.isEmpty());
+    }
+
+    @Test
+    void keepsSubscribedChunksInRange() {
+        update(center());
+        update(center().add(1, 0, 0));
+
+        assertTrue(entered.isEmpty());
+        assertTrue(left.isEmpty());
+        assertEquals(Set.of(ORIGIN_CHUNK), subscribed);
+    }
+
+    @Test
+    void movingMovesSubscriptions() {
+        update(center());
+        update(center().add(Chunks.SIZE_X, 0, 0));
+
+        assertEquals(List.of(NEIGHBOR_CHUNK), entered);
+        assertEquals(List.of(ORIGIN_CHUNK), left);
+        assertEquals(Set.of(NEIGHBOR_CHUNK), subscribed);
+    }
+
+    @Test
+    void unsubscribesChunksOutOfRange() {
+        update(center());
+        update(new Vector3f(-1000, 0, 0));
+
+        assertTrue(entered.isEmpty());
+        assertEquals(List.of(ORIGIN_CHUNK), left);
+        assertTrue(subscribed.isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.module.health.events.BlockDamageLevelsEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockDamageStreamClientSystemTest {
+
+    private final BlockDamageStreamClientSystem client = new BlockDamageStreamClientSystem();
+
+    private static byte[] damaged(int localIndex, int level) {
+        ChunkDamageLevels chunk = new ChunkDamageLevels();
+        chunk.set(localIndex, level);
+        return chunk.pack();
+    }
+
+    @Test
+    void snapshotsAndDeltasUpdateChunks() {
+        Vector3i chunkPosition = new Vector3i(1, 2, 3);
+        client.onBlockDamageLevels(new BlockDamageLevelsEvent(chunkPosition, true, damaged(5, 3)), EntityRef.NULL);
+        client.onBlockDamageLevels(new BlockDamageLevelsEvent(chunkPosition, false, damaged(6, 4)), EntityRef.NULL);
+
+        assertEquals(3, client.getDamagedChunks().get(chunkPosition).get(5));
+        assertEquals(4, client.getDamagedChunks().get(chunkPosition).get(6));
+
+        client.onBlockDamageLevels(new BlockDamageLevelsEvent(chunkPosition, true, new byte[0]), EntityRef.NULL);
+
+        assertTrue(client.getDamagedChunks().isEmpty());
+    }
+
+    @Test
+    void resetForgetsAllChunks() {
+        client.onBlockDamageLevels(new BlockDamageLevelsEvent(new Vector3i(0, 0, 0), true, damaged(1, 1)),
+                EntityRef.NULL);
+        client.onBlockDamageLevels(new BlockDamageLevelsEvent(new Vector3i(4, 0, 0), true, damaged(2, 2)),
+                EntityRef.NULL);
+
+        client.onBlockDamageLevels(BlockDamageLevelsEvent.reset(), EntityRef.NULL);
+
+        assertTrue(client.getDamagedChunks().isEmpty());
+    }
+}
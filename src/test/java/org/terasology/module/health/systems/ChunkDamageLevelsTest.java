@@ -0,0 +1,96 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.module.health.events.BlockDamageLevelsEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkDamageLevelsTest {
+
+    private static final int LAST_INDEX = Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z - 1;
+
+    @Test
+    void packedLevelsApplyToEmptyChunk() {
+        ChunkDamageLevels chunk = new ChunkDamageLevels();
+        chunk.set(0, 1);
+        chunk.set(255, 5);
+        chunk.set(256, 7);
+        chunk.set(LAST_INDEX, HealthAssetCache.DAMAGE_EFFECT_LEVELS);
+
+        byte[] entries = chunk.pack();
+        assertEquals(4 * BlockDamageLevelsEvent.ENTRY_SIZE, entries.length);
+
+        ChunkDamageLevels received = new ChunkDamageLevels();
+        received.apply(entries);
+        assertEquals(chunk.asMap(), received.asMap());
+        assertEquals(HealthAssetCache.DAMAGE_EFFECT_LEVELS, received.get(LAST_INDEX));
+    }
+
+    @Test
+    void packedChangesRemoveRepairedBlocks() {
+        ChunkDamageLevels chunk = new ChunkDamageLevels();
+        chunk.set(10, 3);
+        chunk.set(20, 4);
+        ChunkDamageLevels received = new ChunkDamageLevels();
+        received.apply(chunk.pack());
+
+        chunk.set(10, 0);
+        chunk.set(20, 6);
+        received.apply(chunk.pack(List.of(10, 20)));
+
+        assertEquals(0, received.get(10));
+        assertEquals(6, received.get(20));
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void emptyPackDoesNotChangeChunk() {
+        ChunkDamageLevels chunk = new ChunkDamageLevels();
+        chunk.set(42, 2);
+
+        chunk.apply(new ChunkDamageLevels().pack());
+
+        assertEquals(2, chunk.get(42));
+    }
+
+    @Test
+    void setReportsChanges() {
+        ChunkDamageLevels chunk = new ChunkDamageLevels();
+
+        assertFalse(chunk.set(1, 0));
+        assertTrue(chunk.set(1, 2));
+        assertFalse(chunk.set(1, 2));
+        assertTrue(chunk.set(1, 3));
+        assertTrue(chunk.set(1, 0));
+        assertTrue(chunk.isEmpty());
+    }
+
+    @Test
+    void localIndexRoundTrips() {
+        Vector3i chunkPosition = new Vector3i(-2, 1, 3);
+        Vector3i block = new Vector3i(-2 * Chunks.SIZE_X + 5, Chunks.SIZE_Y + 17, 3 * Chunks.SIZE_Z + Chunks.SIZE_Z - 1);
+
+        int localIndex = ChunkDamageLevels.localIndex(block);
+
+        assertTrue(localIndex >= 0 && localIndex <= LAST_INDEX);
+        assertEquals(block, ChunkDamageLevels.blockPosition(chunkPosition, localIndex, new Vector3i()));
+        assertEquals(chunkPosition, Chunks.toChunkPos(block, new Vector3i()));
+    }
+
+    @Test
+    void damageLevelMapsDamageFraction() {
+        assertEquals(0, ChunkDamageLevels.damageLevel(100, 100));
+        assertEquals(0, ChunkDamageLevels.damageLevel(120, 100));
+        assertEquals(HealthAssetCache.DAMAGE_EFFECT_LEVELS, ChunkDamageLevels.damageLevel(0, 100));
+        assertEquals(HealthAssetCache.DAMAGE_EFFECT_LEVELS / 2, ChunkDamageLevels.damageLevel(50, 100));
+    }
+}
@@ -0,0 +1,59 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.systems;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DamagedChunkRankingTest {
+
+    private static final Vector3i FIRST_CHUNK = new Vector3i(0, 0, 0);
+    private static final Vector3i SECOND_CHUNK = new Vector3i(1, 0, 0);
+    private static final Vector3i THIRD_CHUNK = new Vector3i(2, 0, 0);
+
+    @Test
+    void ranksChunksByDamagedBlocks() {
+        DamagedChunkRanking ranking = new DamagedChunkRanking();
+        ranking.update(new Vector3i(FIRST_CHUNK), 0, 1);
+        ranking.update(new Vector3i(SECOND_CHUNK), 0, 3);
+        ranking.update(new Vector3i(THIRD_CHUNK), 0, 2);
+
+        Map<Vector3ic, Integer> top = ranking.top(2);
+        assertEquals(List.of(SECOND_CHUNK, THIRD_CHUNK), new ArrayList<>(top.keySet()));
+        assertEquals(List.of(3, 2), new ArrayList<>(top.values()));
+        assertEquals(6, ranking.getDamagedBlocks());
+    }
+
+    @Test
+    void movesChunkWhenItsDamagedBlocksChange() {
+        DamagedChunkRanking ranking = new DamagedChunkRanking();
+        ranking.update(new Vector3i(FIRST_CHUNK), 0, 1);
+        ranking.update(new Vector3i(SECOND_CHUNK), 0, 2);
+
+        ranking.update(new Vector3i(FIRST_CHUNK), 1, 2);
+        ranking.update(new Vector3i(FIRST_CHUNK), 2, 3);
+
+        assertEquals(List.of(FIRST_CHUNK, SECOND_CHUNK), new ArrayList<>(ranking.top(10).keySet()));
+        assertEquals(3, ranking.top(1).get(FIRST_CHUNK));
+        assertEquals(5, ranking.getDamagedBlocks());
+    }
+
+    @Test
+    void dropsChunksWithoutDamagedBlocks() {
+        DamagedChunkRanking ranking = new DamagedChunkRanking();
+        ranking.update(new Vector3i(FIRST_CHUNK), 0, 1);
+        ranking.update(new Vector3i(FIRST_CHUNK), 1, 0);
+
+        assertTrue(ranking.top(10).isEmpty());
+        assertEquals(0, ranking.getDamagedBlocks());
+    }
+}
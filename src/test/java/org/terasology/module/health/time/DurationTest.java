@@ -0,0 +1,62 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.time;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurationTest {
+
+    static Stream<Arguments> validDurations() {
+        return Stream.of(
+                Arguments.of("0", 0L),
+                Arguments.of("400", 400L),
+                Arguments.of("400ms", 400L),
+                Arguments.of("400 ms", 400L),
+                Arguments.of("2.5ms", 3L),
+                Arguments.of("1s", 1000L),
+                Arguments.of("1.2s", 1200L),
+                Arguments.of("0.25s", 250L),
+                Arguments.of(" 3s ", 3000L)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("validDurations")
+    void parsesUnits(String text, long expectedMillis) {
+        assertEquals(expectedMillis, Duration.parse(text).getInMillis());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "-400ms", "-0.5ms", "-1.2s"})
+    void negativeDurationsAreInfinite(String text) {
+        Duration duration = Duration.parse(text);
+
+        assertTrue(duration.isInfinite());
+        assertSame(Duration.INFINITE, duration);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "s", "ms", "1m", "1h", "1.s", ".5s", "1e3", "1e3ms", "0x10", "5f", "2d", "NaN",
+            "Infinity", "-Infinity", "1 2s", "1s s", "1sms"})
+    void rejectsMalformedDurations(String text) {
+        assertThrows(IllegalArgumentException.class, () -> Duration.parse(text));
+    }
+
+    @Test
+    void repeatedParsingReturnsEqualDurations() {
+        assertEquals(Duration.parse("750ms"), Duration.parse("750ms"));
+        assertEquals(Duration.fromMillis(750), Duration.parse("0.75s"));
+    }
+}
@@ -0,0 +1,104 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.time;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.terasology.persistence.typeHandling.PersistedData;
+import org.terasology.persistence.typeHandling.PersistedDataSerializer;
+import org.terasology.persistence.typeHandling.inMemory.InMemoryPersistedDataSerializer;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeTypeHandlerTest {
+
+    PersistedDataSerializer serializer = new InMemoryPersistedDataSerializer();
+
+    @Nested
+    class DurationTypeHandlerTest {
+
+        DurationTypeHandler handler = new DurationTypeHandler();
+
+        @Test
+        void roundTripsMillis() {
+            PersistedData data = handler.serialize(Duration.fromMillis(1200), serializer);
+
+            assertEquals(1200, data.getAsLong());
+            assertEquals(Optional.of(Duration.fromMillis(1200)), handler.deserialize(data));
+        }
+
+        @Test
+        void roundTripsInfiniteDuration() {
+            PersistedData data = handler.serialize(Duration.INFINITE, serializer);
+
+            assertTrue(handler.deserialize(data).get().isInfinite());
+        }
+
+        @Test
+        void negativeNumbersAreInfinite() {
+            assertTrue(handler.deserialize(serializer.serialize(-5L)).get().isInfinite());
+        }
+
+        @Test
+        void parsesStrings() {
+            assertEquals(Optional.of(Duration.fromMillis(400)), handler.deserialize(serializer.serialize("400ms")));
+            assertEquals(Optional.of(Duration.fromMillis(1200)), handler.deserialize(serializer.serialize("1.2s")));
+            assertTrue(handler.deserialize(serializer.serialize("-1s")).get().isInfinite());
+        }
+
+        @Test
+        void rejectsMalformedStrings() {
+            assertFalse(handler.deserialize(serializer.serialize("1.2 seconds")).isPresent());
+            assertFalse(handler.deserialize(serializer.serialize("NaN")).isPresent());
+        }
+
+        @Test
+        void rejectsOtherData() {
+            assertFalse(handler.deserialize(serializer.serialize(true)).isPresent());
+            assertFalse(handler.deserialize(serializer.serializeNull()).isPresent());
+        }
+    }
+
+    @Nested
+    class InstantTypeHandlerTest {
+
+        InstantTypeHandler handler = new InstantTypeHandler();
+
+        @Test
+        void roundTripsMillis() {
+            PersistedData data = handler.serialize(Instant.fromMillis(123_456), serializer);
+
+            assertEquals(123_456, data.getAsLong());
+            assertEquals(Optional.of(Instant.fromMillis(123_456)), handler.deserialize(data));
+        }
+
+        @Test
+        void roundTripsNever() {
+            PersistedData data = handler.serialize(Instant.NEVER, serializer);
+
+            assertEquals(Optional.of(Instant.NEVER), handler.deserialize(data));
+        }
+
+        @Test
+        void negativeNumbersAreNever() {
+            assertEquals(Optional.of(Instant.NEVER), handler.deserialize(serializer.serialize(-5L)));
+        }
+
+        @Test
+        void rejectsDurationStrings() {
+            assertFalse(handler.deserialize(serializer.serialize("1.2s")).isPresent());
+            assertFalse(handler.deserialize(serializer.serialize("400")).isPresent());
+        }
+
+        @Test
+        void rejectsOtherData() {
+            assertFalse(handler.deserialize(serializer.serialize(true)).isPresent());
+            assertFalse(handler.deserialize(serializer.serializeNull()).isPresent());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+// Copyright 2022 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.module.health.trace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DamageTraceTest {
+
+    @Test
+    void bufferKeepsLatestRecordsInOrder() {
+        DamageTraceBuffer buffer = new DamageTraceBuffer(4);
+        for (int i = 0; i < 6; i++) {
+            buffer.gameTimes[buffer.claim()] = i;
+        }
+
+        assertEquals(4, buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            assertEquals(i + 2, buffer.gameTimes[buffer.index(i)]);
+        }
+    }
+
+    @Test
+    void samplingFollowsRate() {
+        int sampled = 0;
+        for (long id = 1; id <= 10_000; id++) {
+            assertFalse(DamageTrace.isSampled(id, 0f));
+            assertTrue(DamageTrace.isSampled(id, 1f));
+            if (DamageTrace.isSampled(id, 0.1f)) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled > 800 && sampled < 1200, "sampled " + sampled + " of 10000 entities");
+    }
+}